@@ -4,55 +4,128 @@ import com.englishproject.englishteacherapi.model.Level;
 import com.englishproject.englishteacherapi.model.Teacher;
 import com.englishproject.englishteacherapi.repository.LevelRepository;
 import com.englishproject.englishteacherapi.repository.TeacherRepository;
+import com.englishproject.englishteacherapi.service.CatalogSnapshotService;
+import com.englishproject.englishteacherapi.service.PasswordHashingService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.CommandLineRunner;
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ApplicationContext;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.util.List;
+
+/**
+ * Datos de ejemplo (profesora y niveles) cuando la base está vacía.
+ * Modos (app.seed.mode):
+ * - async: en segundo plano, sin demorar el arranque (por defecto)
+ * - sync: antes de que la aplicación quede lista
+ * - only: ejecuta el seeding y termina el proceso (para correrlo como paso previo al deploy);
+ *   el código de salida es 1 si el seeding falló
+ * - off: no hace nada
+ * Todo se inserta en una sola transacción; si otra instancia ya lo hizo no se repite.
+ */
 @Component
 public class DataInitializer implements CommandLineRunner {
 
+    private static final Logger logger = LoggerFactory.getLogger(DataInitializer.class);
+
     @Autowired
     private TeacherRepository teacherRepository;
 
     @Autowired
     private LevelRepository levelRepository;
 
+    @Autowired
+    private PasswordHashingService passwordHashingService;
+
+    @Autowired
+    private CatalogSnapshotService catalogSnapshotService;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private StartupTimeline startupTimeline;
+
+    @Autowired
+    private ApplicationContext applicationContext;
+
+    @Value("${app.seed.mode:async}")
+    private String seedMode;
+
     @Override
-    public void run(String... args) throws Exception {
-        // Crear profesor de ejemplo
-        if (teacherRepository.count() == 0) {
-            Teacher teacher = new Teacher();
-            teacher.setName("Paz");
-            teacher.setLastName("Valdez");
-            teacher.setDescription("Profesora de inglés con más de 10 años de experiencia enseñando a estudiantes de todos los niveles. " +
-                    "Me especializo en conversación, gramática y preparación para exámenes internacionales. " +
-                    "Mi objetivo es ayudar a mis estudiantes a ganar confianza y fluidez en el idioma inglés.");
-            teacher.setEmail("paz.valdez@englishteacher.com");
-            teacher.setPhone("+54 11 1234-5678");
-            teacher.setYearsOfExperience(10);
-            teacher.setQualifications("Licenciatura en Lenguas Modernas, Certificación TESOL, Cambridge CELTA");
-            teacher.setSpecialties("Conversación, Gramática, Preparación de exámenes, Business English");
-            // Establecer contraseña hasheada (la contraseña es "password123")
-            teacher.setPasswordWithHash("password123");
-            teacherRepository.save(teacher);
+    public void run(String... args) {
+        switch (seedMode) {
+            case "off" -> logger.info("Seeding deshabilitado (app.seed.mode=off)");
+            case "sync" -> seedSafely();
+            case "only" -> {
+                int exitCode = seedSafely() ? 0 : 1;
+                System.exit(SpringApplication.exit(applicationContext, () -> exitCode));
+            }
+            default -> Thread.ofVirtual().name("data-seeding").start(this::seedSafely);
         }
+    }
 
-        // Crear niveles de ejemplo
-        if (levelRepository.count() == 0) {
-            Level basicLevel = new Level();
-            basicLevel.setName("Básico");
-            basicLevel.setDescription("Nivel inicial para estudiantes que están comenzando con el idioma inglés");
-            levelRepository.save(basicLevel);
-
-            Level intermediateLevel = new Level();
-            intermediateLevel.setName("Intermedio");
-            intermediateLevel.setDescription("Nivel intermedio para estudiantes con conocimientos previos del idioma");
-            levelRepository.save(intermediateLevel);
-
-            Level advancedLevel = new Level();
-            advancedLevel.setName("Avanzado");
-            advancedLevel.setDescription("Nivel avanzado para estudiantes con dominio del idioma");
-            levelRepository.save(advancedLevel);
+    /**
+     * @return false si el seeding falló y los datos de ejemplo no están en la base
+     */
+    private boolean seedSafely() {
+        try {
+            startupTimeline.time("seeding (" + seedMode + ")", this::seed);
+            return true;
+        } catch (DataIntegrityViolationException e) {
+            // Otra instancia insertó lo mismo en paralelo (nombres/emails únicos): los datos ya están
+            logger.warn("Seeding omitido: los datos de ejemplo ya fueron insertados por otra instancia", e);
+            return true;
+        } catch (RuntimeException e) {
+            logger.error("Error en el seeding de datos de ejemplo", e);
+            return false;
         }
     }
+
+    private void seed() {
+        transactionTemplate.executeWithoutResult(status -> {
+            // Crear profesor de ejemplo
+            if (teacherRepository.count() == 0) {
+                Teacher teacher = new Teacher();
+                teacher.setName("Paz");
+                teacher.setLastName("Valdez");
+                teacher.setDescription("Profesora de inglés con más de 10 años de experiencia enseñando a estudiantes de todos los niveles. " +
+                        "Me especializo en conversación, gramática y preparación para exámenes internacionales. " +
+                        "Mi objetivo es ayudar a mis estudiantes a ganar confianza y fluidez en el idioma inglés.");
+                teacher.setEmail("paz.valdez@englishteacher.com");
+                teacher.setPhone("+54 11 1234-5678");
+                teacher.setYearsOfExperience(10);
+                teacher.setQualifications("Licenciatura en Lenguas Modernas, Certificación TESOL, Cambridge CELTA");
+                teacher.setSpecialties("Conversación, Gramática, Preparación de exámenes, Business English");
+                // Establecer contraseña hasheada (la contraseña es "password123")
+                teacher.setPassword(passwordHashingService.hash("password123"));
+                teacherRepository.save(teacher);
+            }
+
+            // Crear niveles de ejemplo
+            if (levelRepository.count() == 0) {
+                Level basicLevel = new Level();
+                basicLevel.setName("Básico");
+                basicLevel.setDescription("Nivel inicial para estudiantes que están comenzando con el idioma inglés");
+
+                Level intermediateLevel = new Level();
+                intermediateLevel.setName("Intermedio");
+                intermediateLevel.setDescription("Nivel intermedio para estudiantes con conocimientos previos del idioma");
+
+                Level advancedLevel = new Level();
+                advancedLevel.setName("Avanzado");
+                advancedLevel.setDescription("Nivel avanzado para estudiantes con dominio del idioma");
+
+                List<Level> levels = levelRepository.saveAll(List.of(basicLevel, intermediateLevel, advancedLevel));
+                // El snapshot del catálogo pudo construirse antes: se actualiza luego del commit
+                levels.forEach(level -> catalogSnapshotService.levelChanged(level.getId()));
+            }
+        });
+    }
 }
@@ -0,0 +1,95 @@
+package com.englishproject.englishteacherapi.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.core.annotation.Order;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Crea los índices que JPA no puede declarar (índices parciales y GIN de PostgreSQL).
+ * ddl-auto=update crea las tablas pero no este tipo de índice; las sentencias son
+ * idempotentes (IF NOT EXISTS) y se ejecutan en cada arranque antes del seeding.
+ * También alinea la secuencia de ids de actividades con los ids ya existentes y completa
+ * created_at en filas viejas: ddl-auto=update no agrega NOT NULL a una columna existente.
+ */
+@Component
+@Order(0)
+public class DatabaseIndexInitializer implements CommandLineRunner {
+
+    private static final Logger logger = LoggerFactory.getLogger(DatabaseIndexInitializer.class);
+
+    // Cubren los accesos de ActivityRepository: filtros por nivel/tipo sobre actividades activas
+    // ordenadas por (created_at DESC, id DESC), y el listado completo paginado
+    private static final List<String> INDEX_STATEMENTS = List.of(
+            "CREATE INDEX IF NOT EXISTS idx_activities_active_level_created " +
+                    "ON activities (level_id, created_at DESC, id DESC) WHERE is_active = true",
+            "CREATE INDEX IF NOT EXISTS idx_activities_active_type_created " +
+                    "ON activities (type, created_at DESC, id DESC) WHERE is_active = true",
+            "CREATE INDEX IF NOT EXISTS idx_activities_created " +
+                    "ON activities (created_at DESC, id DESC)",
+            // Búsqueda de texto completo (ActivitySearchRepository): columna generada con pesos
+            // título > descripción > contenido y configuración 'simple' (textos en inglés y español)
+            "ALTER TABLE activities ADD COLUMN IF NOT EXISTS search_vector tsvector GENERATED ALWAYS AS (" +
+                    "setweight(to_tsvector('simple', coalesce(title, '')), 'A') || " +
+                    "setweight(to_tsvector('simple', coalesce(description, '')), 'B') || " +
+                    "setweight(to_tsvector('simple', coalesce(content, '')), 'C')) STORED",
+            "CREATE INDEX IF NOT EXISTS idx_activities_search " +
+                    "ON activities USING GIN (search_vector)"
+    );
+
+    // La paginación keyset filtra por created_at < ?: una fila con created_at nulo nunca se devolvería
+    private static final List<String> CREATED_AT_STATEMENTS = List.of(
+            "UPDATE activities SET created_at = COALESCE(updated_at, CURRENT_TIMESTAMP) WHERE created_at IS NULL",
+            "ALTER TABLE activities ALTER COLUMN created_at SET NOT NULL"
+    );
+
+    // Las bases creadas cuando Activity.id era IDENTITY ya tienen filas: la secuencia
+    // nueva debe arrancar por encima del id máximo para no generar duplicados
+    private static final String ALIGN_ACTIVITY_SEQUENCE =
+            "SELECT setval('activities_seq', m.max_id) " +
+            "FROM (SELECT MAX(id) AS max_id FROM activities) m, activities_seq s " +
+            "WHERE m.max_id IS NOT NULL AND s.last_value < m.max_id";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private StartupTimeline startupTimeline;
+
+    @Override
+    public void run(String... args) {
+        startupTimeline.time("database.indexes", this::createIndexes);
+    }
+
+    private void createIndexes() {
+        for (String statement : CREATED_AT_STATEMENTS) {
+            try {
+                jdbcTemplate.execute(statement);
+            } catch (DataAccessException e) {
+                logger.warn("No se pudo completar created_at: {} ({})", statement, e.getMessage());
+            }
+        }
+
+        for (String statement : INDEX_STATEMENTS) {
+            try {
+                jdbcTemplate.execute(statement);
+            } catch (DataAccessException e) {
+                // Un índice faltante degrada el rendimiento pero no debe impedir el arranque
+                logger.warn("No se pudo crear el índice: {} ({})", statement, e.getMessage());
+            }
+        }
+        logger.info("Índices de base de datos verificados ({} sentencias)", INDEX_STATEMENTS.size());
+
+        try {
+            jdbcTemplate.queryForList(ALIGN_ACTIVITY_SEQUENCE);
+        } catch (DataAccessException e) {
+            logger.warn("No se pudo alinear la secuencia activities_seq ({})", e.getMessage());
+        }
+    }
+}
@@ -1,7 +1,9 @@
 package com.englishproject.englishteacherapi.config;
 
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
 import org.springframework.web.servlet.config.annotation.ResourceHandlerRegistry;
 import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
 
@@ -11,10 +13,21 @@ public class FileConfig implements WebMvcConfigurer {
     @Value("${app.upload.dir:uploads}")
     private String uploadDir;
 
+    @Autowired
+    private UploadsCacheInterceptor uploadsCacheInterceptor;
+
     @Override
     public void addResourceHandlers(ResourceHandlerRegistry registry) {
         // Configurar para servir archivos estáticos desde el directorio uploads
+        // (los headers de cache los pone UploadsCacheInterceptor con la misma política que FileController)
         registry.addResourceHandler("/uploads/**")
-                .addResourceLocations("file:" + uploadDir + "/");
+                .addResourceLocations("file:" + uploadDir + "/")
+                .setUseLastModified(false);
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(uploadsCacheInterceptor)
+                .addPathPatterns("/uploads/**");
     }
-}
\ No newline at end of file
+}
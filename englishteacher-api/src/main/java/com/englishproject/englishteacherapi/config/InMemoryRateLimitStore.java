@@ -0,0 +1,109 @@
+package com.englishproject.englishteacherapi.config;
+
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Contadores en memoria de la instancia: cada réplica aplica el límite completo por su cuenta.
+ * También es el respaldo de PostgresRateLimitStore cuando la base no está disponible.
+ */
+@Component
+@ConditionalOnProperty(name = "app.rate-limit.store", havingValue = "memory", matchIfMissing = true)
+public class InMemoryRateLimitStore implements RateLimitStore {
+
+    private static final Logger logger = LoggerFactory.getLogger(InMemoryRateLimitStore.class);
+
+    // Almacenamiento de contadores por IP y endpoint
+    private final Map<String, TokenBucket> requestCounters = new ConcurrentHashMap<>();
+    private final ScheduledExecutorService cleanupExecutor;
+
+    public InMemoryRateLimitStore(@Value("${spring.threads.virtual.enabled:false}") boolean virtualThreads) {
+        // En modo virtual threads la limpieza tampoco ocupa un hilo de plataforma
+        ThreadFactory threadFactory = virtualThreads
+                ? Thread.ofVirtual().name("rate-limit-cleanup").factory()
+                : Thread.ofPlatform().name("rate-limit-cleanup").daemon(true).factory();
+        this.cleanupExecutor = Executors.newSingleThreadScheduledExecutor(threadFactory);
+
+        // Limpiar contadores expirados cada 2 minutos
+        cleanupExecutor.scheduleAtFixedRate(this::cleanupExpiredCounters, 2, 2, TimeUnit.MINUTES);
+    }
+
+    @Override
+    public boolean tryConsume(String key, int maxRequests, long windowNanos) {
+        TokenBucket bucket = requestCounters.get(key);
+        if (bucket == null) {
+            bucket = requestCounters.computeIfAbsent(key, k -> new TokenBucket());
+        }
+        return bucket.tryConsume(maxRequests, windowNanos, System.nanoTime());
+    }
+
+    private void cleanupExpiredCounters() {
+        long now = System.nanoTime();
+
+        // Un bucket que ya se recargó por completo equivale a uno nuevo, se puede descartar
+        requestCounters.entrySet().removeIf(entry -> entry.getValue().isFull(now));
+
+        logger.debug("Cleanup de rate limiting completado. Contadores activos: {}", requestCounters.size());
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        cleanupExecutor.shutdown();
+        try {
+            if (!cleanupExecutor.awaitTermination(5, TimeUnit.SECONDS)) {
+                cleanupExecutor.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            cleanupExecutor.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Token bucket de tamaño constante por clave (algoritmo GCRA).
+     * Todo el estado es un único long con el "tiempo teórico de llegada" del próximo request,
+     * actualizado con CAS: no hay locks ni listas de timestamps por request.
+     */
+    static final class TokenBucket {
+        private final AtomicLong theoreticalArrival = new AtomicLong(Long.MIN_VALUE);
+
+        /**
+         * Consume un token si hay disponible.
+         * @param maxRequests capacidad del bucket (requests permitidos por ventana)
+         * @param windowNanos duración de la ventana en nanosegundos
+         * @param now instante actual según System.nanoTime()
+         * @return true si el request está permitido
+         */
+        boolean tryConsume(int maxRequests, long windowNanos, long now) {
+            long emissionInterval = windowNanos / maxRequests;
+            while (true) {
+                long current = theoreticalArrival.get();
+                long tat = (current == Long.MIN_VALUE || current - now < 0) ? now : current;
+                long next = tat + emissionInterval;
+                if (next - now > windowNanos) {
+                    return false;
+                }
+                if (theoreticalArrival.compareAndSet(current, next)) {
+                    return true;
+                }
+            }
+        }
+
+        boolean isFull(long now) {
+            long current = theoreticalArrival.get();
+            return current == Long.MIN_VALUE || current - now <= 0;
+        }
+    }
+}
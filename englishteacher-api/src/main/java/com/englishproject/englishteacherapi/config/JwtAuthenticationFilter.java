@@ -11,7 +11,10 @@ import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 import com.englishproject.englishteacherapi.service.AuthService;
+import com.englishproject.englishteacherapi.service.LatencyHistogram;
+import com.englishproject.englishteacherapi.service.MetricsRegistry;
 import com.englishproject.englishteacherapi.service.TokenServices;
+import com.englishproject.englishteacherapi.service.VerifiedTokenCache;
 
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
@@ -27,42 +30,76 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
     @Autowired
     private AuthService authService;
 
+    @Autowired
+    private VerifiedTokenCache verifiedTokenCache;
+
+    @Autowired
+    private MetricsRegistry metricsRegistry;
+
+    // Tiempo propio del filtro (sin el resto de la cadena)
+    private LatencyHistogram filterLatency;
+
+    @Override
+    protected void initFilterBean() {
+        filterLatency = metricsRegistry.histogram("filter_stage", "Tiempo propio de cada filtro",
+                MetricsRegistry.Unit.NANOSECONDS, "filter", "JwtAuthenticationFilter");
+    }
+
     @Override
     protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
                                     FilterChain filterChain) throws ServletException, IOException {
 
+        long start = System.nanoTime();
         final String requestTokenHeader = request.getHeader("Authorization");
-        String email = null;
-        String jwtToken = null;
 
         // El JWT token viene en el formato "Bearer token"
-        if (requestTokenHeader != null && requestTokenHeader.startsWith("Bearer ")) {
-            jwtToken = requestTokenHeader.substring(7);
-            try {
-                email = tokenServices.extractEmail(jwtToken);
-            } catch (Exception e) {
-                logger.warn("No se pudo obtener el email del token JWT");
+        if (requestTokenHeader != null && requestTokenHeader.startsWith("Bearer ")
+                && SecurityContextHolder.getContext().getAuthentication() == null) {
+            String jwtToken = requestTokenHeader.substring(7);
+
+            // Token ya verificado: sin chequeo de firma ni consulta a la base de datos
+            String email = verifiedTokenCache.getEmail(jwtToken);
+            if (email == null) {
+                email = verifyToken(jwtToken);
             }
-        }
 
-        // Si tenemos el email y no hay autenticación en el contexto actual
-        if (email != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-            // Validar el token
-            if (tokenServices.validateToken(jwtToken, email)) {
-                // Verificar que el usuario existe
-                if (authService.teacherExists(email)) {
-                    // Crear el token de autenticación
-                    UsernamePasswordAuthenticationToken authToken =
-                        new UsernamePasswordAuthenticationToken(email, null, new ArrayList<>());
-
-                    authToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
-
-                    // Establecer la autenticación en el contexto de seguridad
-                    SecurityContextHolder.getContext().setAuthentication(authToken);
-                }
+            if (email != null) {
+                // Crear el token de autenticación
+                UsernamePasswordAuthenticationToken authToken =
+                    new UsernamePasswordAuthenticationToken(email, null, new ArrayList<>());
+
+                authToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
+
+                // Establecer la autenticación en el contexto de seguridad
+                SecurityContextHolder.getContext().setAuthentication(authToken);
             }
         }
 
+        filterLatency.recordSince(start);
         filterChain.doFilter(request, response);
     }
+
+    /**
+     * Verifica firma, expiración y existencia del profesor; si todo es válido
+     * guarda el resultado en cache hasta la expiración del token
+     * @return email del profesor o null si el token no es válido
+     */
+    private String verifyToken(String jwtToken) {
+        // Un único parseo: firma, subject y expiración
+        TokenServices.ParsedToken parsed = tokenServices.parseToken(jwtToken);
+        if (!parsed.valid() || parsed.subject() == null) {
+            logger.warn("Token JWT inválido o expirado");
+            return null;
+        }
+
+        // Verificar que el usuario existe
+        String email = parsed.subject();
+        if (!authService.teacherExists(email)) {
+            return null;
+        }
+
+        long expiresAtMillis = parsed.expiration() != null ? parsed.expiration().getTime() : Long.MAX_VALUE;
+        verifiedTokenCache.put(jwtToken, email, expiresAtMillis);
+        return email;
+    }
 }
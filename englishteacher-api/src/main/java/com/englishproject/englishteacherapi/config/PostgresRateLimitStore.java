@@ -0,0 +1,340 @@
+package com.englishproject.englishteacherapi.config;
+
+import com.englishproject.englishteacherapi.service.MetricsRegistry;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Contadores compartidos entre réplicas en una tabla UNLOGGED de PostgreSQL
+ * (se pierde ante un crash de la base, algo aceptable para contadores de un minuto).
+ * El bucket compartido usa el mismo algoritmo GCRA que InMemoryRateLimitStore, con el reloj
+ * de la base, pero los requests casi nunca esperan a la base:
+ * - lease: cada instancia reserva tokens por adelantado y los consume en memoria
+ * - consumo provisorio: sin lease se permite un cupo acotado que se descuenta en el próximo flush
+ * Un único hilo hace el flush periódico con una sola consulta para todas las claves con consumo
+ * pendiente o lease por renovar; las claves con tráfico alto renuevan de a 50 tokens, así la base
+ * recibe menos de un round-trip cada 50 requests. Los tokens de un lease que vence sin usarse se
+ * pierden; el límite global se respeta de forma aproximada: se puede exceder como máximo en un
+ * cupo provisorio por instancia entre dos flushes.
+ * Si la base no responde se usa un InMemoryRateLimitStore local hasta que vuelva.
+ */
+@Component
+@ConditionalOnProperty(name = "app.rate-limit.store", havingValue = "postgres")
+public class PostgresRateLimitStore implements RateLimitStore {
+
+    private static final Logger logger = LoggerFactory.getLogger(PostgresRateLimitStore.class);
+
+    // Tamaño máximo de un lease; nunca más de la cuarta parte de la capacidad del bucket
+    private static final int MAX_LEASE = 50;
+    // Claves por consulta de flush
+    private static final int FLUSH_BATCH_SIZE = 500;
+
+    private static final List<String> SCHEMA_STATEMENTS = List.of(
+            "CREATE UNLOGGED TABLE IF NOT EXISTS rate_limit_buckets (" +
+                    "bucket_key varchar(255) PRIMARY KEY, " +
+                    "tat_micros bigint NOT NULL)",
+            // Descuenta el consumo ya realizado (upsert atómico, puede exceder la ventana) y otorga
+            // un lease solo hasta completar la ventana; wait_micros indica cuándo vuelve a haber un token.
+            // El lock de la fila dura toda la llamada, así dos instancias no se otorgan el mismo token
+            "CREATE OR REPLACE FUNCTION rate_limit_acquire(p_key varchar, p_used integer, p_lease integer, " +
+                    "p_interval_micros bigint, p_window_micros bigint, " +
+                    "OUT granted integer, OUT wait_micros bigint) LANGUAGE plpgsql AS $$ " +
+                    "DECLARE " +
+                    "  now_micros bigint := (EXTRACT(EPOCH FROM clock_timestamp()) * 1000000)::bigint; " +
+                    "  tat bigint; " +
+                    "BEGIN " +
+                    "  INSERT INTO rate_limit_buckets AS b (bucket_key, tat_micros) " +
+                    "  VALUES (p_key, now_micros + p_used * p_interval_micros) " +
+                    "  ON CONFLICT (bucket_key) DO UPDATE " +
+                    "    SET tat_micros = GREATEST(b.tat_micros, now_micros) + p_used * p_interval_micros " +
+                    "  RETURNING b.tat_micros INTO tat; " +
+                    "  granted := GREATEST(0, LEAST(p_lease, (now_micros + p_window_micros - tat) / p_interval_micros))::integer; " +
+                    "  IF granted > 0 THEN " +
+                    "    tat := tat + granted * p_interval_micros; " +
+                    "    UPDATE rate_limit_buckets SET tat_micros = tat WHERE bucket_key = p_key; " +
+                    "  END IF; " +
+                    "  wait_micros := GREATEST(0, tat - now_micros - p_window_micros + p_interval_micros); " +
+                    "END $$"
+    );
+
+    // Un bucket con el tiempo teórico de llegada en el pasado está lleno: equivale a no tener fila
+    private static final String PURGE_FULL_BUCKETS =
+            "DELETE FROM rate_limit_buckets " +
+            "WHERE tat_micros < (EXTRACT(EPOCH FROM clock_timestamp()) * 1000000)::bigint";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final InMemoryRateLimitStore fallback;
+    private final Map<String, LocalBucket> buckets = new ConcurrentHashMap<>();
+    private final ScheduledExecutorService executor;
+
+    private final LongAdder decisions;
+    private final LongAdder roundTrips;
+
+    // true mientras la base no responde: las decisiones las toma el respaldo en memoria
+    private volatile boolean degraded;
+
+    public PostgresRateLimitStore(JdbcTemplate jdbcTemplate,
+                                  MetricsRegistry metricsRegistry,
+                                  @Value("${spring.threads.virtual.enabled:false}") boolean virtualThreads,
+                                  @Value("${app.rate-limit.flush-interval-ms:1000}") long flushIntervalMillis) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.fallback = new InMemoryRateLimitStore(virtualThreads);
+        this.decisions = metricsRegistry.counter("rate_limit_decisions_total",
+                "Requests evaluados por el rate limiting");
+        this.roundTrips = metricsRegistry.counter("rate_limit_store_round_trips_total",
+                "Consultas a la base del rate limiting compartido");
+        this.degraded = !createSchema();
+
+        ThreadFactory threadFactory = virtualThreads
+                ? Thread.ofVirtual().name("rate-limit-flush").factory()
+                : Thread.ofPlatform().name("rate-limit-flush").daemon(true).factory();
+        this.executor = Executors.newSingleThreadScheduledExecutor(threadFactory);
+        executor.scheduleWithFixedDelay(this::flushSafely, flushIntervalMillis, flushIntervalMillis, TimeUnit.MILLISECONDS);
+        executor.scheduleAtFixedRate(this::cleanupSafely, 2, 2, TimeUnit.MINUTES);
+    }
+
+    @Override
+    public boolean tryConsume(String key, int maxRequests, long windowNanos) {
+        decisions.increment();
+        if (degraded) {
+            return fallback.tryConsume(key, maxRequests, windowNanos);
+        }
+
+        long now = System.nanoTime();
+        LocalBucket bucket = buckets.get(key);
+        if (bucket == null) {
+            bucket = buckets.computeIfAbsent(key, k -> new LocalBucket(now));
+        }
+        bucket.maxRequests = maxRequests;
+        bucket.windowNanos = windowNanos;
+        bucket.lastSeen = now;
+
+        // Bucket compartido agotado según el último flush
+        if (now - bucket.blockedUntil < 0) {
+            return false;
+        }
+        bucket.demand.incrementAndGet();
+        if (now - bucket.leaseExpiresAt < 0 && decrementIfPositive(bucket.leasedTokens)) {
+            return true;
+        }
+        return incrementIfBelow(bucket.pending, leaseSize(maxRequests));
+    }
+
+    /**
+     * Envía el consumo provisorio y pide un lease completo para las claves cuya reserva no cubre
+     * la demanda del último intervalo; una consulta por cada FLUSH_BATCH_SIZE claves
+     */
+    void flush() {
+        if (degraded) {
+            // La base volvió: se recrea el esquema por si el arranque fue sin base
+            if (createSchema()) {
+                degraded = false;
+                buckets.clear();
+                logger.info("Rate limiting compartido restablecido");
+            }
+            return;
+        }
+
+        long now = System.nanoTime();
+        // Orden fijo de claves: dos instancias bloquean las filas en el mismo orden (sin deadlocks)
+        TreeMap<String, int[]> requests = new TreeMap<>();
+        for (Map.Entry<String, LocalBucket> entry : buckets.entrySet()) {
+            LocalBucket bucket = entry.getValue();
+            int demand = bucket.demand.getAndSet(0);
+            int used = bucket.pending.getAndSet(0);
+            int remaining = now - bucket.leaseExpiresAt < 0 ? bucket.leasedTokens.get() : 0;
+            int lease = demand > 0 && remaining <= demand ? leaseSize(bucket.maxRequests) : 0;
+            if (used > 0 || lease > 0) {
+                requests.put(entry.getKey(), new int[]{used, lease});
+            }
+        }
+
+        List<String> keys = new ArrayList<>(requests.keySet());
+        for (int from = 0; from < keys.size(); from += FLUSH_BATCH_SIZE) {
+            List<String> chunk = keys.subList(from, Math.min(from + FLUSH_BATCH_SIZE, keys.size()));
+            try {
+                applyResults(acquire(chunk, requests), requests, now);
+            } catch (DataAccessException e) {
+                // El consumo no reportado se conserva para el próximo intento
+                for (String key : keys.subList(from, keys.size())) {
+                    LocalBucket bucket = buckets.get(key);
+                    if (bucket != null) {
+                        bucket.pending.addAndGet(requests.get(key)[0]);
+                    }
+                }
+                degraded = true;
+                logger.warn("Rate limiting compartido no disponible, se usan contadores locales: {}", e.getMessage());
+                return;
+            }
+        }
+    }
+
+    private List<Map<String, Object>> acquire(List<String> keys, Map<String, int[]> requests) {
+        StringBuilder sql = new StringBuilder("SELECT r.bucket_key, a.granted, a.wait_micros FROM (VALUES ");
+        List<Object> params = new ArrayList<>(keys.size() * 5);
+        for (int i = 0; i < keys.size(); i++) {
+            String key = keys.get(i);
+            LocalBucket bucket = buckets.get(key);
+            long windowMicros = TimeUnit.NANOSECONDS.toMicros(bucket != null ? bucket.windowNanos : TimeUnit.MINUTES.toNanos(1));
+            int maxRequests = bucket != null ? bucket.maxRequests : 1;
+            sql.append(i == 0 ? "" : ", ").append("(?, ?, ?, ?, ?)");
+            params.add(key);
+            params.add(requests.get(key)[0]);
+            params.add(requests.get(key)[1]);
+            params.add(Math.max(1, windowMicros / maxRequests));
+            params.add(windowMicros);
+        }
+        sql.append(") AS r(bucket_key, used, lease, interval_micros, window_micros) " +
+                "CROSS JOIN LATERAL rate_limit_acquire(r.bucket_key, r.used, r.lease, r.interval_micros, r.window_micros) a");
+        roundTrips.increment();
+        return jdbcTemplate.queryForList(sql.toString(), params.toArray());
+    }
+
+    private void applyResults(List<Map<String, Object>> rows, Map<String, int[]> requests, long now) {
+        for (Map<String, Object> row : rows) {
+            String key = (String) row.get("bucket_key");
+            LocalBucket bucket = buckets.get(key);
+            if (bucket == null) {
+                continue;
+            }
+            int granted = ((Number) row.get("granted")).intValue();
+            long waitMicros = ((Number) row.get("wait_micros")).longValue();
+            if (granted > 0) {
+                if (now - bucket.leaseExpiresAt >= 0) {
+                    bucket.leasedTokens.set(0);
+                }
+                bucket.leasedTokens.addAndGet(granted);
+                // Un lease vale como máximo una ventana
+                bucket.leaseExpiresAt = now + bucket.windowNanos;
+            } else if (waitMicros > 0 && bucket.leasedTokens.get() <= 0) {
+                bucket.blockedUntil = now + TimeUnit.MICROSECONDS.toNanos(waitMicros);
+            }
+        }
+    }
+
+    private void cleanup() {
+        long now = System.nanoTime();
+        // Claves sin uso durante una ventana y sin consumo pendiente
+        buckets.entrySet().removeIf(entry -> {
+            LocalBucket bucket = entry.getValue();
+            return now - bucket.lastSeen > bucket.windowNanos && bucket.pending.get() == 0;
+        });
+        if (!degraded) {
+            int purged = jdbcTemplate.update(PURGE_FULL_BUCKETS);
+            roundTrips.increment();
+            logger.debug("Cleanup de rate limiting compartido: {} claves locales, {} filas purgadas", buckets.size(), purged);
+        }
+    }
+
+    private boolean createSchema() {
+        try {
+            SCHEMA_STATEMENTS.forEach(jdbcTemplate::execute);
+            return true;
+        } catch (DataAccessException e) {
+            logger.warn("No se pudo preparar el rate limiting compartido: {}", e.getMessage());
+            return false;
+        }
+    }
+
+    private void flushSafely() {
+        try {
+            flush();
+        } catch (RuntimeException e) {
+            logger.error("Error en el flush del rate limiting compartido", e);
+        }
+    }
+
+    private void cleanupSafely() {
+        try {
+            cleanup();
+        } catch (RuntimeException e) {
+            logger.warn("Error en el cleanup del rate limiting compartido: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Tokens por lease (y cupo provisorio sin lease): hasta 50, sin pasar de un cuarto de la capacidad
+     */
+    static int leaseSize(int maxRequests) {
+        return Math.max(1, Math.min(MAX_LEASE, maxRequests / 4));
+    }
+
+    private static boolean decrementIfPositive(AtomicInteger counter) {
+        int current;
+        do {
+            current = counter.get();
+            if (current <= 0) {
+                return false;
+            }
+        } while (!counter.compareAndSet(current, current - 1));
+        return true;
+    }
+
+    private static boolean incrementIfBelow(AtomicInteger counter, int limit) {
+        int current;
+        do {
+            current = counter.get();
+            if (current >= limit) {
+                return false;
+            }
+        } while (!counter.compareAndSet(current, current + 1));
+        return true;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+        try {
+            if (!executor.awaitTermination(5, TimeUnit.SECONDS)) {
+                executor.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            executor.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+        // Último flush: el consumo provisorio de esta instancia cuenta para las demás
+        flushSafely();
+        fallback.shutdown();
+    }
+
+    /**
+     * Estado local de una clave. Lo modifican los hilos de los requests (con CAS)
+     * y el hilo de flush; las carreras entre ambos solo desplazan tokens de un intervalo al siguiente.
+     */
+    static final class LocalBucket {
+        final AtomicInteger leasedTokens = new AtomicInteger();
+        // Consumo permitido sin lease, todavía no descontado en la base
+        final AtomicInteger pending = new AtomicInteger();
+        // Requests recibidos desde el último flush (dimensiona el próximo lease)
+        final AtomicInteger demand = new AtomicInteger();
+        volatile long leaseExpiresAt;
+        volatile long blockedUntil;
+        volatile long lastSeen;
+        volatile int maxRequests = 1;
+        volatile long windowNanos = TimeUnit.MINUTES.toNanos(1);
+
+        LocalBucket(long now) {
+            this.leaseExpiresAt = now;
+            this.blockedUntil = now;
+            this.lastSeen = now;
+        }
+    }
+}
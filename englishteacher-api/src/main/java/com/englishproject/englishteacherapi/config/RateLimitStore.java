@@ -0,0 +1,19 @@
+package com.englishproject.englishteacherapi.config;
+
+/**
+ * Almacén de los contadores de RateLimitingFilter.
+ * La implementación se elige con app.rate-limit.store:
+ * - memory: buckets en memoria, por instancia (por defecto)
+ * - postgres: bucket compartido entre réplicas (PostgresRateLimitStore)
+ */
+public interface RateLimitStore {
+
+    /**
+     * Consume un request del bucket de la clave si hay capacidad
+     * @param key cliente y categoría de endpoint (p. ej. "10.0.0.1:read")
+     * @param maxRequests capacidad del bucket (requests permitidos por ventana)
+     * @param windowNanos duración de la ventana en nanosegundos
+     * @return true si el request está permitido
+     */
+    boolean tryConsume(String key, int maxRequests, long windowNanos);
+}
@@ -7,15 +7,13 @@ import jakarta.servlet.ServletRequest;
 import jakarta.servlet.ServletResponse;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
+import com.englishproject.englishteacherapi.service.LatencyHistogram;
+import com.englishproject.englishteacherapi.service.MetricsRegistry;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Component;
 
 import java.io.IOException;
-import java.util.Map;
-import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.Executors;
-import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
 
 @Component
@@ -28,20 +26,25 @@ public class RateLimitingFilter implements Filter {
     private static final int API_MAX_REQUESTS = 200;        // 200 requests por minuto (generoso)
     private static final int FILE_MAX_REQUESTS = 50;        // 50 descargas por minuto (suficiente)
     private static final long WINDOW_SIZE_MINUTES = 1;      // Ventana de 1 minuto
+    private static final long WINDOW_SIZE_NANOS = TimeUnit.MINUTES.toNanos(WINDOW_SIZE_MINUTES);
     
-    // Almacenamiento de contadores por IP y endpoint
-    private final Map<String, RequestCounter> requestCounters = new ConcurrentHashMap<>();
-    private final ScheduledExecutorService cleanupExecutor = Executors.newScheduledThreadPool(1);
+    // Contadores por IP y endpoint (en memoria o compartidos entre réplicas, según app.rate-limit.store)
+    private final RateLimitStore rateLimitStore;
     
-    public RateLimitingFilter() {
-        // Limpiar contadores expirados cada 2 minutos
-        cleanupExecutor.scheduleAtFixedRate(this::cleanupExpiredCounters, 2, 2, TimeUnit.MINUTES);
+    // Tiempo propio del filtro (sin el resto de la cadena)
+    private final LatencyHistogram filterLatency;
+
+    public RateLimitingFilter(RateLimitStore rateLimitStore, MetricsRegistry metricsRegistry) {
+        this.rateLimitStore = rateLimitStore;
+        this.filterLatency = metricsRegistry.histogram("filter_stage", "Tiempo propio de cada filtro",
+                MetricsRegistry.Unit.NANOSECONDS, "filter", "RateLimitingFilter");
     }
     
     @Override
     public void doFilter(ServletRequest request, ServletResponse response, FilterChain chain) 
             throws IOException, ServletException {
         
+        long start = System.nanoTime();
         HttpServletRequest httpRequest = (HttpServletRequest) request;
         HttpServletResponse httpResponse = (HttpServletResponse) response;
         
@@ -58,10 +61,12 @@ public class RateLimitingFilter implements Filter {
             if (isRateLimited(key, maxRequests)) {
                 logger.warn("Rate limit excedido para IP: {} en endpoint: {} {}", clientIP, method, requestURI);
                 handleRateLimitExceeded(httpResponse, clientIP, requestURI);
+                filterLatency.recordSince(start);
                 return;
             }
         }
         
+        filterLatency.recordSince(start);
         chain.doFilter(request, response);
     }
     
@@ -121,29 +126,11 @@ public class RateLimitingFilter implements Filter {
     }
     
     private boolean isRateLimited(String key, int maxRequests) {
-        long currentTime = System.currentTimeMillis();
-        long windowStart = currentTime - (WINDOW_SIZE_MINUTES * 60 * 1000);
-        
-        RequestCounter counter = requestCounters.compute(key, (k, v) -> {
-            if (v == null) {
-                v = new RequestCounter();
-            }
-            
-            // Limpiar requests fuera de la ventana
-            v.requests.removeIf(timestamp -> timestamp < windowStart);
-            
-            // Agregar request actual
-            v.requests.add(currentTime);
-            v.lastAccess = currentTime;
-            
-            return v;
-        });
-        
-        boolean isLimited = counter.requests.size() > maxRequests;
+        boolean isLimited = !rateLimitStore.tryConsume(key, maxRequests, WINDOW_SIZE_NANOS);
         
         if (isLimited) {
-            logger.info("Rate limiting aplicado para clave: {} ({} requests en ventana de {} min)", 
-                       key, counter.requests.size(), WINDOW_SIZE_MINUTES);
+            logger.info("Rate limiting aplicado para clave: {} (más de {} requests en ventana de {} min)", 
+                       key, maxRequests, WINDOW_SIZE_MINUTES);
         }
         
         return isLimited;
@@ -169,32 +156,4 @@ public class RateLimitingFilter implements Filter {
         logger.warn("SECURITY: Rate limit exceeded - IP: {}, Endpoint: {}, Time: {}", 
                    clientIP, uri, System.currentTimeMillis());
     }
-    
-    private void cleanupExpiredCounters() {
-        long currentTime = System.currentTimeMillis();
-        long cleanupThreshold = currentTime - (WINDOW_SIZE_MINUTES * 60 * 1000 * 2); // 2 ventanas
-        
-        requestCounters.entrySet().removeIf(entry -> entry.getValue().lastAccess < cleanupThreshold);
-        
-        logger.debug("Cleanup de rate limiting completado. Contadores activos: {}", requestCounters.size());
-    }
-    
-    @Override
-    public void destroy() {
-        cleanupExecutor.shutdown();
-        try {
-            if (!cleanupExecutor.awaitTermination(5, TimeUnit.SECONDS)) {
-                cleanupExecutor.shutdownNow();
-            }
-        } catch (InterruptedException e) {
-            cleanupExecutor.shutdownNow();
-            Thread.currentThread().interrupt();
-        }
-    }
-    
-    // Clase interna para almacenar contadores de requests
-    private static class RequestCounter {
-        final java.util.List<Long> requests = new java.util.concurrent.CopyOnWriteArrayList<>();
-        volatile long lastAccess = System.currentTimeMillis();
-    }
-}
\ No newline at end of file
+}
@@ -0,0 +1,71 @@
+package com.englishproject.englishteacherapi.config;
+
+import com.englishproject.englishteacherapi.service.LatencyHistogram;
+import com.englishproject.englishteacherapi.service.MetricsRegistry;
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.data.repository.core.support.RepositoryFactoryBeanSupport;
+import org.springframework.stereotype.Component;
+
+import java.lang.reflect.Method;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Agrega a cada repositorio de Spring Data un interceptor que mide la duración de sus métodos.
+ * Para los métodos que devuelven Stream se mide la apertura del cursor, no el recorrido.
+ * MetricsRegistry se resuelve recién en la primera llamada medida: un BeanPostProcessor que lo
+ * inyecta directamente lo crea antes que el resto de los post-processors y lo deja sin procesar.
+ */
+@Component
+public class RepositoryMetricsConfig implements BeanPostProcessor {
+
+    private final ObjectProvider<MetricsRegistry> metricsRegistry;
+
+    public RepositoryMetricsConfig(ObjectProvider<MetricsRegistry> metricsRegistry) {
+        this.metricsRegistry = metricsRegistry;
+    }
+
+    @Override
+    public Object postProcessBeforeInitialization(Object bean, String beanName) {
+        if (bean instanceof RepositoryFactoryBeanSupport<?, ?, ?> factoryBean) {
+            factoryBean.addRepositoryFactoryCustomizer(factory ->
+                    factory.addRepositoryProxyPostProcessor((proxyFactory, repositoryInformation) ->
+                            proxyFactory.addAdvice(new RepositoryTimingInterceptor(
+                                    repositoryInformation.getRepositoryInterface().getSimpleName()))));
+        }
+        return bean;
+    }
+
+    private final class RepositoryTimingInterceptor implements MethodInterceptor {
+
+        private final String repositoryName;
+        private final Map<Method, LatencyHistogram> latencies = new ConcurrentHashMap<>();
+
+        private RepositoryTimingInterceptor(String repositoryName) {
+            this.repositoryName = repositoryName;
+        }
+
+        @Override
+        public Object invoke(MethodInvocation invocation) throws Throwable {
+            long start = System.nanoTime();
+            try {
+                return invocation.proceed();
+            } finally {
+                latencyFor(invocation.getMethod()).recordSince(start);
+            }
+        }
+
+        private LatencyHistogram latencyFor(Method method) {
+            LatencyHistogram histogram = latencies.get(method);
+            if (histogram == null) {
+                histogram = latencies.computeIfAbsent(method, key -> metricsRegistry.getObject().histogram(
+                        "repository_call", "Duración de las llamadas a repositorios",
+                        MetricsRegistry.Unit.NANOSECONDS, "method", repositoryName + "." + key.getName()));
+            }
+            return histogram;
+        }
+    }
+}
@@ -0,0 +1,60 @@
+package com.englishproject.englishteacherapi.config;
+
+import com.englishproject.englishteacherapi.service.LatencyHistogram;
+import com.englishproject.englishteacherapi.service.MetricsRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+import java.lang.reflect.Method;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Latencia por método de controlador. Corre después de la cadena de seguridad, así mide
+ * el trabajo del DispatcherServlet (controlador, servicios y serialización).
+ * El método se obtiene del atributo que deja Spring MVC al resolver el handler;
+ * el histograma de cada método se crea una vez y luego solo se registra el valor.
+ */
+@Component
+@Order(Ordered.LOWEST_PRECEDENCE)
+public class RequestMetricsFilter extends OncePerRequestFilter {
+
+    @Autowired
+    private MetricsRegistry metricsRegistry;
+
+    private final Map<Method, LatencyHistogram> handlerLatencies = new ConcurrentHashMap<>();
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+        long start = System.nanoTime();
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            if (request.getAttribute(HandlerMapping.BEST_MATCHING_HANDLER_ATTRIBUTE) instanceof HandlerMethod handler) {
+                latencyFor(handler.getMethod()).recordSince(start);
+            }
+        }
+    }
+
+    private LatencyHistogram latencyFor(Method method) {
+        LatencyHistogram histogram = handlerLatencies.get(method);
+        if (histogram == null) {
+            histogram = handlerLatencies.computeIfAbsent(method, key -> metricsRegistry.histogram(
+                    "http_server_requests", "Latencia por método de controlador",
+                    MetricsRegistry.Unit.NANOSECONDS, "handler",
+                    key.getDeclaringClass().getSimpleName() + "." + key.getName()));
+        }
+        return histogram;
+    }
+}
@@ -39,7 +39,7 @@ public class SecurityConfig {
                 .requestMatchers("/api/teachers/all", "/api/teachers/{id}").permitAll()
                 .requestMatchers("/api/levels", "/api/levels/**").permitAll()
                 // Permitir GET de actividades públicamente
-                .requestMatchers(HttpMethod.GET, "/api/activities", "/api/activities/{id}", "/api/activities/level/{levelId}").permitAll()
+                .requestMatchers(HttpMethod.GET, "/api/activities", "/api/activities/{id}", "/api/activities/level/{levelId}", "/api/activities/search").permitAll()
                 
                 // Rutas de archivos - descarga pública, upload requiere autenticación
                 .requestMatchers(HttpMethod.GET, "/api/files/activities/**").permitAll() // Descargar archivos
@@ -51,10 +51,13 @@ public class SecurityConfig {
                 .requestMatchers("/api/teachers/admin/**").authenticated()
                 .requestMatchers("/api/levels/create", "/api/levels/update/**", "/api/levels/delete/**").authenticated()
                 // Operaciones CUD de actividades requieren autenticación
-                .requestMatchers(HttpMethod.POST, "/api/activities").authenticated()
+                .requestMatchers(HttpMethod.POST, "/api/activities", "/api/activities/batch").authenticated()
                 .requestMatchers(HttpMethod.PUT, "/api/activities/**").authenticated()
                 .requestMatchers(HttpMethod.DELETE, "/api/activities/**").authenticated()
 
+                // Scrape de métricas: protegido con X-Metrics-Token en el controlador
+                .requestMatchers(HttpMethod.GET, "/api/metrics").permitAll()
+
                 // H2 Console para desarrollo
                 .requestMatchers("/h2-console/**").permitAll()
 
@@ -85,6 +88,7 @@ public class SecurityConfig {
         
         configuration.setAllowedMethods(Arrays.asList("GET", "POST", "PUT", "DELETE", "OPTIONS"));
         configuration.setAllowedHeaders(Arrays.asList("Authorization", "Content-Type", "X-Requested-With"));
+        configuration.setExposedHeaders(Arrays.asList("X-Next-Cursor"));
         configuration.setAllowCredentials(true);
         configuration.setMaxAge(3600L); // Cache preflight por 1 hora
 
@@ -0,0 +1,83 @@
+package com.englishproject.englishteacherapi.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.ContextRefreshedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.lang.management.ManagementFactory;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Línea de tiempo del arranque: cada fase con su inicio relativo al arranque de la JVM y su duración.
+ * Mide la construcción del EntityManagerFactory (incluye la validación/actualización del esquema
+ * según ddl-auto), el refresh del contexto, los inicializadores y el seeding.
+ */
+@Component
+public class StartupTimeline implements BeanPostProcessor {
+
+    private static final String ENTITY_MANAGER_FACTORY_BEAN = "entityManagerFactory";
+
+    public record Phase(String name, long startOffsetMillis, long durationMillis, String thread) {
+    }
+
+    private final long jvmStartMillis = ManagementFactory.getRuntimeMXBean().getStartTime();
+    private final List<Phase> phases = new CopyOnWriteArrayList<>();
+    private volatile long entityManagerFactoryStartMillis;
+
+    @Value("${spring.jpa.hibernate.ddl-auto:none}")
+    private String ddlAuto;
+
+    @Override
+    public Object postProcessBeforeInitialization(Object bean, String beanName) {
+        if (ENTITY_MANAGER_FACTORY_BEAN.equals(beanName)) {
+            entityManagerFactoryStartMillis = System.currentTimeMillis();
+        }
+        return bean;
+    }
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) {
+        if (ENTITY_MANAGER_FACTORY_BEAN.equals(beanName) && entityManagerFactoryStartMillis > 0) {
+            record("hibernate.bootstrap (ddl-auto=" + ddlAuto + ")", entityManagerFactoryStartMillis, System.currentTimeMillis());
+        }
+        return bean;
+    }
+
+    @EventListener(ContextRefreshedEvent.class)
+    public void onContextRefreshed() {
+        record("context.refresh", jvmStartMillis, System.currentTimeMillis());
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        record("application.ready", jvmStartMillis, System.currentTimeMillis());
+    }
+
+    /**
+     * Ejecuta una fase y registra su duración
+     */
+    public void time(String name, Runnable phase) {
+        long start = System.currentTimeMillis();
+        try {
+            phase.run();
+        } finally {
+            record(name, start, System.currentTimeMillis());
+        }
+    }
+
+    public List<Phase> getPhases() {
+        return List.copyOf(phases);
+    }
+
+    public long getJvmStartMillis() {
+        return jvmStartMillis;
+    }
+
+    private void record(String name, long startMillis, long endMillis) {
+        phases.add(new Phase(name, startMillis - jvmStartMillis, endMillis - startMillis, Thread.currentThread().getName()));
+    }
+}
@@ -0,0 +1,34 @@
+package com.englishproject.englishteacherapi.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+@Configuration
+public class UploadProcessingConfig {
+
+    private static final int WORKER_THREADS = 2;
+    private static final int QUEUE_CAPACITY = 100;
+
+    /**
+     * Pool acotado para el post-procesamiento de archivos subidos (miniaturas, sidecars .gz).
+     * Si la cola se llena la tarea se rechaza y el archivo se sirve sin derivados.
+     */
+    @Bean(destroyMethod = "shutdown")
+    public ExecutorService uploadProcessingExecutor(@Value("${spring.threads.virtual.enabled:false}") boolean virtualThreads) {
+        // Con virtual threads el pool sigue acotado a WORKER_THREADS tareas simultáneas
+        ThreadFactory threadFactory = virtualThreads
+                ? Thread.ofVirtual().name("upload-processing-", 1).factory()
+                : Thread.ofPlatform().name("upload-processing-", 1).daemon(true).factory();
+        return new ThreadPoolExecutor(
+                WORKER_THREADS, WORKER_THREADS, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(QUEUE_CAPACITY),
+                threadFactory);
+    }
+}
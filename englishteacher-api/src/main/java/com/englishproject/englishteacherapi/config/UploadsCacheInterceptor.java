@@ -0,0 +1,48 @@
+package com.englishproject.englishteacherapi.config;
+
+import com.englishproject.englishteacherapi.service.FileCachePolicy;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+/**
+ * Aplica FileCachePolicy a los archivos servidos por el handler estático /uploads/**,
+ * de modo que ambas rutas de descarga envían los mismos headers de cache y responden 304 igual.
+ */
+@Component
+public class UploadsCacheInterceptor implements HandlerInterceptor {
+
+    private static final String UPLOADS_PREFIX = "/uploads/";
+
+    @Value("${app.upload.dir:uploads}")
+    private String uploadDir;
+
+    @Autowired
+    private FileCachePolicy fileCachePolicy;
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) throws Exception {
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        if (!path.startsWith(UPLOADS_PREFIX)) {
+            return true;
+        }
+
+        Path basePath = Paths.get(uploadDir).toAbsolutePath().normalize();
+        Path filePath = basePath.resolve(path.substring(UPLOADS_PREFIX.length())).normalize();
+
+        // Rutas fuera del directorio o inexistentes las resuelve (y rechaza) el propio handler
+        if (!filePath.startsWith(basePath) || !Files.isRegularFile(filePath)) {
+            return true;
+        }
+
+        // Si el cliente ya tiene la versión actual se corta la cadena con 304
+        return !fileCachePolicy.applyAndCheckNotModified(request, response, filePath);
+    }
+}
@@ -1,31 +1,139 @@
 package com.englishproject.englishteacherapi.controller;
 
+import com.englishproject.englishteacherapi.dto.ActivityCursor;
 import com.englishproject.englishteacherapi.dto.ActivityDTO;
+import com.englishproject.englishteacherapi.dto.ActivitySearchHit;
+import com.englishproject.englishteacherapi.dto.ActivitySummaryDTO;
+import com.englishproject.englishteacherapi.dto.SearchCursor;
+import com.englishproject.englishteacherapi.dto.SearchPage;
 import com.englishproject.englishteacherapi.model.Activity;
+import com.englishproject.englishteacherapi.service.ActivitySearchService;
 import com.englishproject.englishteacherapi.service.ActivityService;
+import com.englishproject.englishteacherapi.service.CatalogSnapshotService;
+import com.englishproject.englishteacherapi.service.CatalogVersion;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.CacheControl;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.BindingResult;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.validation.ConstraintViolation;
 import jakarta.validation.Valid;
+import jakarta.validation.Validator;
 import jakarta.validation.constraints.Positive;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import tools.jackson.databind.ObjectMapper;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+import java.util.function.Supplier;
 
 @RestController
 @RequestMapping("/api/activities")
 @CrossOrigin(origins = "http://localhost:5173")
 public class ActivityController {
 
+    private static final Logger logger = LoggerFactory.getLogger(ActivityController.class);
+    private static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+    private static final String NDJSON_CONTENT_TYPE = "application/x-ndjson";
+    private static final int DEFAULT_PAGE_SIZE = 50;
+    private static final int MAX_PAGE_SIZE = 200;
+    private static final int MAX_BATCH_SIZE = 1000;
+
     @Autowired
     private ActivityService activityService;
 
+    @Autowired
+    private CatalogVersion catalogVersion;
+
+    @Autowired
+    private CatalogSnapshotService catalogSnapshotService;
+
+    @Autowired
+    private ActivitySearchService activitySearchService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private Validator validator;
+
+    // Sin "cursor" ni "limit" se devuelve la lista completa; con alguno de ellos se pagina
+    // y el cursor de la página siguiente viaja en el header X-Next-Cursor
     @GetMapping
-    public ResponseEntity<List<ActivityDTO>> getAllActivities() {
-        List<ActivityDTO> activities = activityService.getAllActivities();
-        return ResponseEntity.ok(activities);
+    public ResponseEntity<List<ActivityDTO>> getAllActivities(@RequestParam(required = false) String cursor,
+                                                              @RequestParam(required = false) Integer limit,
+                                                              WebRequest webRequest) {
+        return conditionalList(webRequest, cursor, limit,
+                activityService::getAllActivities, activityService::getAllActivities, ActivityCursor::after);
+    }
+
+    // Vista resumida opcional (?view=summary): sin description ni content
+    @GetMapping(params = "view=summary")
+    public ResponseEntity<List<ActivitySummaryDTO>> getAllActivitySummaries(@RequestParam(required = false) String cursor,
+                                                                            @RequestParam(required = false) Integer limit,
+                                                                            WebRequest webRequest) {
+        return summaryList(webRequest, cursor, limit, null, null);
+    }
+
+    // Modo streaming opcional (?format=ndjson): una actividad por línea, memoria constante
+    @GetMapping(params = "format=ndjson")
+    public void streamAllActivities(HttpServletResponse response) throws IOException {
+        streamNdjson(response, null, null);
+    }
+
+    // view=summary y format=ndjson juntos coincidirían con dos handlers: se rechaza explícitamente
+    @GetMapping(value = {"", "/level/{levelId}", "/type/{type}", "/level/{levelId}/type/{type}"},
+            params = {"view=summary", "format=ndjson"})
+    public ResponseEntity<Object> rejectSummaryStream() {
+        return errorResponse("view=summary y format=ndjson no se pueden combinar", List.of());
+    }
+
+    /**
+     * Búsqueda de texto completo con ranking de relevancia.
+     * Filtros opcionales por nivel y tipo; la página siguiente viaja en X-Next-Cursor.
+     */
+    @GetMapping("/search")
+    public ResponseEntity<Object> searchActivities(@RequestParam String q,
+                                                   @RequestParam(required = false) Long levelId,
+                                                   @RequestParam(required = false) Activity.ActivityType type,
+                                                   @RequestParam(required = false) String cursor,
+                                                   @RequestParam(required = false) Integer limit) {
+        try {
+            SearchCursor after = SearchCursor.decode(cursor);
+            int pageSize = limit == null ? DEFAULT_PAGE_SIZE : Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+            SearchPage page = activitySearchService.search(q, levelId, type, after, pageSize);
+
+            ResponseEntity.BodyBuilder builder = ResponseEntity.ok();
+            if (page.next() != null) {
+                builder.header(NEXT_CURSOR_HEADER, page.next().encode());
+            }
+            return builder.body(page.hits().stream().map(ActivitySearchHit::activity).toList());
+        } catch (IllegalArgumentException e) {
+            return errorResponse(e.getMessage(), List.of());
+        }
+    }
+
+    /**
+     * Tamaño del índice de búsqueda en memoria (requiere autenticación)
+     */
+    @GetMapping("/search/stats")
+    public ResponseEntity<Map<String, Object>> getSearchIndexStats() {
+        Map<String, Object> footprint = activitySearchService.indexFootprint();
+        if (footprint == null) {
+            return ResponseEntity.notFound().build();
+        }
+        return ResponseEntity.ok(footprint);
     }
 
     @GetMapping("/{id}")
@@ -36,23 +144,91 @@ public class ActivityController {
     }
 
     @GetMapping("/level/{levelId}")
-    public ResponseEntity<List<ActivityDTO>> getActivitiesByLevelId(@PathVariable @Positive(message = "ID del nivel debe ser positivo") Long levelId) {
-        List<ActivityDTO> activities = activityService.getActivitiesByLevelId(levelId);
-        return ResponseEntity.ok(activities);
+    public ResponseEntity<?> getActivitiesByLevelId(@PathVariable @Positive(message = "ID del nivel debe ser positivo") Long levelId,
+                                                    @RequestParam(required = false) String cursor,
+                                                    @RequestParam(required = false) Integer limit,
+                                                    WebRequest webRequest) {
+        if (cursor == null && limit == null) {
+            // La versión se lee antes que el snapshot: nunca se asocia un ETag nuevo a contenido viejo
+            long version = catalogVersion.current();
+            byte[] snapshot = catalogSnapshotService.getActivitiesByLevel(levelId, version);
+            if (snapshot != null) {
+                return snapshotResponse(webRequest, CatalogVersion.etag(version), snapshot);
+            }
+        }
+        return conditionalList(webRequest, cursor, limit,
+                () -> activityService.getActivitiesByLevelId(levelId),
+                (after, pageSize) -> activityService.getActivitiesByLevelId(levelId, after, pageSize),
+                ActivityCursor::after);
+    }
+
+    @GetMapping(value = "/level/{levelId}", params = "view=summary")
+    public ResponseEntity<List<ActivitySummaryDTO>> getActivitySummariesByLevelId(@PathVariable @Positive(message = "ID del nivel debe ser positivo") Long levelId,
+                                                                                  @RequestParam(required = false) String cursor,
+                                                                                  @RequestParam(required = false) Integer limit,
+                                                                                  WebRequest webRequest) {
+        return summaryList(webRequest, cursor, limit, levelId, null);
+    }
+
+    @GetMapping(value = "/level/{levelId}", params = "format=ndjson")
+    public void streamActivitiesByLevelId(@PathVariable @Positive(message = "ID del nivel debe ser positivo") Long levelId,
+                                          HttpServletResponse response) throws IOException {
+        streamNdjson(response, levelId, null);
     }
 
     @GetMapping("/type/{type}")
-    public ResponseEntity<List<ActivityDTO>> getActivitiesByType(@PathVariable Activity.ActivityType type) {
-        List<ActivityDTO> activities = activityService.getActivitiesByType(type);
-        return ResponseEntity.ok(activities);
+    public ResponseEntity<List<ActivityDTO>> getActivitiesByType(@PathVariable Activity.ActivityType type,
+                                                                 @RequestParam(required = false) String cursor,
+                                                                 @RequestParam(required = false) Integer limit,
+                                                                 WebRequest webRequest) {
+        return conditionalList(webRequest, cursor, limit,
+                () -> activityService.getActivitiesByType(type),
+                (after, pageSize) -> activityService.getActivitiesByType(type, after, pageSize),
+                ActivityCursor::after);
+    }
+
+    @GetMapping(value = "/type/{type}", params = "view=summary")
+    public ResponseEntity<List<ActivitySummaryDTO>> getActivitySummariesByType(@PathVariable Activity.ActivityType type,
+                                                                               @RequestParam(required = false) String cursor,
+                                                                               @RequestParam(required = false) Integer limit,
+                                                                               WebRequest webRequest) {
+        return summaryList(webRequest, cursor, limit, null, type);
+    }
+
+    @GetMapping(value = "/type/{type}", params = "format=ndjson")
+    public void streamActivitiesByType(@PathVariable Activity.ActivityType type,
+                                       HttpServletResponse response) throws IOException {
+        streamNdjson(response, null, type);
     }
 
     @GetMapping("/level/{levelId}/type/{type}")
     public ResponseEntity<List<ActivityDTO>> getActivitiesByLevelAndType(
             @PathVariable Long levelId,
-            @PathVariable Activity.ActivityType type) {
-        List<ActivityDTO> activities = activityService.getActivitiesByLevelAndType(levelId, type);
-        return ResponseEntity.ok(activities);
+            @PathVariable Activity.ActivityType type,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit,
+            WebRequest webRequest) {
+        return conditionalList(webRequest, cursor, limit,
+                () -> activityService.getActivitiesByLevelAndType(levelId, type),
+                (after, pageSize) -> activityService.getActivitiesByLevelAndType(levelId, type, after, pageSize),
+                ActivityCursor::after);
+    }
+
+    @GetMapping(value = "/level/{levelId}/type/{type}", params = "view=summary")
+    public ResponseEntity<List<ActivitySummaryDTO>> getActivitySummariesByLevelAndType(
+            @PathVariable Long levelId,
+            @PathVariable Activity.ActivityType type,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit,
+            WebRequest webRequest) {
+        return summaryList(webRequest, cursor, limit, levelId, type);
+    }
+
+    @GetMapping(value = "/level/{levelId}/type/{type}", params = "format=ndjson")
+    public void streamActivitiesByLevelAndType(@PathVariable Long levelId,
+                                               @PathVariable Activity.ActivityType type,
+                                               HttpServletResponse response) throws IOException {
+        streamNdjson(response, levelId, type);
     }
 
     @PostMapping
@@ -112,4 +288,171 @@ public class ActivityController {
         }
         return ResponseEntity.notFound().build();
     }
+
+    // Operaciones masivas: se valida todo el lote en una pasada y se persiste en una
+    // sola transacción; si un elemento es inválido no se aplica ninguno
+
+    @PostMapping("/batch")
+    public ResponseEntity<Object> createActivities(@RequestBody List<ActivityDTO> activityDTOs) {
+        List<String> errors = validateBatch(activityDTOs, false);
+        if (!errors.isEmpty()) {
+            return errorResponse("Datos de entrada inválidos", errors);
+        }
+        try {
+            // La latencia queda en http_server_requests{handler="ActivityController.createActivities"}
+            List<ActivityDTO> createdActivities = activityService.createActivities(activityDTOs);
+            return ResponseEntity.status(HttpStatus.CREATED).body(createdActivities);
+        } catch (IllegalArgumentException e) {
+            logger.warn("Lote rechazado en alta masiva: {}", e.getMessage(), e);
+            return errorResponse(e.getMessage(), List.of());
+        }
+    }
+
+    @PutMapping("/batch")
+    public ResponseEntity<Object> updateActivities(@RequestBody List<ActivityDTO> activityDTOs) {
+        List<String> errors = validateBatch(activityDTOs, true);
+        if (!errors.isEmpty()) {
+            return errorResponse("Datos de entrada inválidos", errors);
+        }
+        try {
+            return ResponseEntity.ok(activityService.updateActivities(activityDTOs));
+        } catch (IllegalArgumentException e) {
+            logger.warn("Lote rechazado en actualización masiva: {}", e.getMessage(), e);
+            return errorResponse(e.getMessage(), List.of());
+        }
+    }
+
+    @PutMapping("/batch/deactivate")
+    public ResponseEntity<Object> deactivateActivities(@RequestBody List<Long> ids) {
+        if (ids == null || ids.isEmpty() || ids.size() > MAX_BATCH_SIZE || ids.contains(null)) {
+            return errorResponse("Se requiere una lista de 1 a " + MAX_BATCH_SIZE + " IDs", List.of());
+        }
+        try {
+            return ResponseEntity.ok(activityService.deactivateActivities(ids));
+        } catch (IllegalArgumentException e) {
+            logger.warn("Lote rechazado en desactivación masiva: {}", e.getMessage(), e);
+            return errorResponse(e.getMessage(), List.of());
+        }
+    }
+
+    /**
+     * Valida cada elemento del lote con las mismas reglas que el alta individual
+     * @param requireId true para actualizaciones, donde cada elemento debe indicar su id
+     * @return mensajes de error prefijados con la posición del elemento
+     */
+    private List<String> validateBatch(List<ActivityDTO> activityDTOs, boolean requireId) {
+        if (activityDTOs == null || activityDTOs.isEmpty() || activityDTOs.size() > MAX_BATCH_SIZE) {
+            return List.of("Se requiere una lista de 1 a " + MAX_BATCH_SIZE + " actividades");
+        }
+        List<String> errors = new ArrayList<>();
+        for (int i = 0; i < activityDTOs.size(); i++) {
+            ActivityDTO activityDTO = activityDTOs.get(i);
+            if (activityDTO == null) {
+                errors.add("[" + i + "] Actividad vacía");
+                continue;
+            }
+            if (requireId && activityDTO.getId() == null) {
+                errors.add("[" + i + "] ID es obligatorio");
+            }
+            for (ConstraintViolation<ActivityDTO> violation : validator.validate(activityDTO)) {
+                errors.add("[" + i + "] " + violation.getMessage());
+            }
+        }
+        if (!errors.isEmpty()) {
+            logger.warn("Lote inválido ({} errores): {}", errors.size(), errors);
+        }
+        return errors;
+    }
+
+    private ResponseEntity<Object> errorResponse(String message, List<String> errors) {
+        Map<String, Object> response = new HashMap<>();
+        response.put("success", false);
+        response.put("message", message);
+        response.put("errors", errors);
+        return ResponseEntity.badRequest().body(response);
+    }
+
+    /**
+     * GET condicional: si el cliente ya tiene la versión actual del catálogo
+     * responde 304 Not Modified sin cargar ninguna entidad.
+     * Sin cursor ni limit devuelve la lista completa; si no, una página keyset.
+     */
+    private <T> ResponseEntity<List<T>> conditionalList(WebRequest webRequest, String cursor, Integer limit,
+                                                        Supplier<List<T>> loader,
+                                                        BiFunction<ActivityCursor, Integer, List<T>> pageLoader,
+                                                        Function<T, ActivityCursor> cursorOf) {
+        String etag = catalogVersion.etag();
+        if (webRequest.checkNotModified(etag)) {
+            // Spring ya estableció el estado 304 y el ETag en la respuesta
+            return null;
+        }
+
+        if (cursor == null && limit == null) {
+            return ResponseEntity.ok()
+                    .eTag(etag)
+                    .cacheControl(CacheControl.noCache())
+                    .body(loader.get());
+        }
+
+        ActivityCursor after;
+        try {
+            after = ActivityCursor.decode(cursor);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+        int pageSize = limit == null ? DEFAULT_PAGE_SIZE : Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+        List<T> page = pageLoader.apply(after, pageSize);
+
+        ResponseEntity.BodyBuilder builder = ResponseEntity.ok()
+                .eTag(etag)
+                .cacheControl(CacheControl.noCache());
+        if (page.size() == pageSize) {
+            builder.header(NEXT_CURSOR_HEADER, cursorOf.apply(page.get(page.size() - 1)).encode());
+        }
+        return builder.body(page);
+    }
+
+    /**
+     * Respuesta desde el snapshot materializado: los bytes ya son el JSON final
+     */
+    private ResponseEntity<byte[]> snapshotResponse(WebRequest webRequest, String etag, byte[] snapshot) {
+        if (webRequest.checkNotModified(etag)) {
+            return null;
+        }
+        return ResponseEntity.ok()
+                .eTag(etag)
+                .cacheControl(CacheControl.noCache())
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(snapshot);
+    }
+
+    private ResponseEntity<List<ActivitySummaryDTO>> summaryList(WebRequest webRequest, String cursor, Integer limit,
+                                                                 Long levelId, Activity.ActivityType type) {
+        return conditionalList(webRequest, cursor, limit,
+                () -> activityService.getActivitySummaries(levelId, type, ActivityCursor.FIRST, null),
+                (after, pageSize) -> activityService.getActivitySummaries(levelId, type, after, pageSize),
+                ActivityCursor::after);
+    }
+
+    /**
+     * Escribe las actividades como NDJSON a medida que se leen de la base de datos
+     */
+    private void streamNdjson(HttpServletResponse response, Long levelId, Activity.ActivityType type) throws IOException {
+        response.setContentType(NDJSON_CONTENT_TYPE);
+        response.setCharacterEncoding("UTF-8");
+        OutputStream out = response.getOutputStream();
+        try {
+            activityService.streamActivities(levelId, type, activity -> {
+                try {
+                    out.write(objectMapper.writeValueAsBytes(activity));
+                    out.write('\n');
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        out.flush();
+    }
 }
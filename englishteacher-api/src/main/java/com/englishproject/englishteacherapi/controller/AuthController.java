@@ -6,6 +6,7 @@ import com.englishproject.englishteacherapi.model.Teacher;
 import com.englishproject.englishteacherapi.service.AuthService;
 import com.englishproject.englishteacherapi.service.TokenServices;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.BindingResult;
@@ -15,6 +16,7 @@ import jakarta.validation.Valid;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.RejectedExecutionException;
 
 @RestController
 @RequestMapping("/api/auth")
@@ -80,6 +82,14 @@ public class AuthController {
                 return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(response);
             }
 
+        } catch (RejectedExecutionException e) {
+            // Pool de BCrypt saturado: rechazo rápido para no afectar al resto del tráfico
+            response.put("success", false);
+            response.put("message", "Servidor ocupado, intente nuevamente en unos segundos");
+
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .header(HttpHeaders.RETRY_AFTER, "2")
+                    .body(response);
         } catch (Exception e) {
             response.put("success", false);
             response.put("message", "Error interno del servidor");
@@ -120,12 +130,11 @@ public class AuthController {
                 return ResponseEntity.badRequest().body(response);
             }
 
-            boolean isValid = tokenServices.validateToken(token);
+            TokenServices.ParsedToken parsed = tokenServices.parseToken(token);
 
-            if (isValid) {
-                String email = tokenServices.extractEmail(token);
+            if (parsed.valid()) {
                 response.put("valid", true);
-                response.put("email", email);
+                response.put("email", parsed.subject());
                 response.put("message", "Token válido");
             } else {
                 response.put("valid", false);
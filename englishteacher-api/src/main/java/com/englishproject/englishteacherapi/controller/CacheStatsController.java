@@ -0,0 +1,83 @@
+package com.englishproject.englishteacherapi.controller;
+
+import com.englishproject.englishteacherapi.model.Activity;
+import com.englishproject.englishteacherapi.model.Level;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/cache")
+public class CacheStatsController {
+
+    // Regiones del cache de segundo nivel (solo entidades)
+    private static final List<String> REGIONS = List.of(
+            Level.class.getName(),
+            Activity.class.getName()
+    );
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    // Endpoint protegido con los contadores de aciertos/fallos del cache de Hibernate
+    @GetMapping("/stats")
+    public ResponseEntity<Map<String, Object>> getCacheStats() {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        Map<String, Object> response = new LinkedHashMap<>();
+
+        response.put("statisticsEnabled", statistics.isStatisticsEnabled());
+        response.put("secondLevelCache", counters(
+                statistics.getSecondLevelCacheHitCount(),
+                statistics.getSecondLevelCacheMissCount(),
+                statistics.getSecondLevelCachePutCount()));
+        response.put("queryCache", counters(
+                statistics.getQueryCacheHitCount(),
+                statistics.getQueryCacheMissCount(),
+                statistics.getQueryCachePutCount()));
+
+        Map<String, Object> regions = new LinkedHashMap<>();
+        for (String region : REGIONS) {
+            CacheRegionStatistics regionStatistics = regionStatistics(statistics, region);
+            if (regionStatistics != null) {
+                Map<String, Object> regionCounters = counters(
+                        regionStatistics.getHitCount(),
+                        regionStatistics.getMissCount(),
+                        regionStatistics.getPutCount());
+                regionCounters.put("elementsInMemory", regionStatistics.getElementCountInMemory());
+                regions.put(region, regionCounters);
+            }
+        }
+        response.put("regions", regions);
+
+        return ResponseEntity.ok(response);
+    }
+
+    private CacheRegionStatistics regionStatistics(Statistics statistics, String region) {
+        try {
+            return statistics.getDomainDataRegionStatistics(region);
+        } catch (IllegalArgumentException e) {
+            // La región todavía no existe (cache deshabilitado o sin entidades cargadas)
+            return null;
+        }
+    }
+
+    private Map<String, Object> counters(long hits, long misses, long puts) {
+        Map<String, Object> counters = new LinkedHashMap<>();
+        counters.put("hits", hits);
+        counters.put("misses", misses);
+        counters.put("puts", puts);
+        long lookups = hits + misses;
+        counters.put("hitRatio", lookups == 0 ? 0.0 : (double) hits / lookups);
+        return counters;
+    }
+}
@@ -1,23 +1,28 @@
 package com.englishproject.englishteacherapi.controller;
 
 import java.io.IOException;
-import java.net.MalformedURLException;
+import java.io.InputStream;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.FileSystemException;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.nio.file.StandardCopyOption;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.Locale;
 import java.util.Map;
 import java.util.UUID;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.core.io.Resource;
-import org.springframework.core.io.UrlResource;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
-import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.util.StringUtils;
 import org.springframework.web.bind.annotation.CrossOrigin;
@@ -30,6 +35,14 @@ import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 import org.springframework.web.multipart.MultipartFile;
 
+import com.englishproject.englishteacherapi.repository.ActivityRepository;
+import com.englishproject.englishteacherapi.service.CompressedSidecarService;
+import com.englishproject.englishteacherapi.service.FileCachePolicy;
+import com.englishproject.englishteacherapi.service.FileStreamingService;
+import com.englishproject.englishteacherapi.service.ImageDerivativeService;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.constraints.Pattern;
 
 @RestController
@@ -39,10 +52,29 @@ public class FileController {
     
     private static final Logger logger = LoggerFactory.getLogger(FileController.class);
     private static final java.util.regex.Pattern SAFE_FILENAME_PATTERN = java.util.regex.Pattern.compile("^[a-zA-Z0-9._-]+$");
+    private static final java.util.regex.Pattern CONTENT_HASH_FILENAME_PATTERN = java.util.regex.Pattern.compile("^[0-9a-f]{64}\\.[a-z0-9]+$");
     private static final int MAX_FILENAME_LENGTH = 100;
 
     @Value("${app.upload.dir:uploads}")
     private String uploadDir;
+
+    @Value("${app.upload.content-addressed:true}")
+    private boolean contentAddressedUploads;
+
+    @Autowired
+    private FileStreamingService fileStreamingService;
+
+    @Autowired
+    private FileCachePolicy fileCachePolicy;
+
+    @Autowired
+    private ImageDerivativeService imageDerivativeService;
+
+    @Autowired
+    private CompressedSidecarService compressedSidecarService;
+
+    @Autowired
+    private ActivityRepository activityRepository;
     
     /**
      * Valida que el nombre de archivo sea seguro y esté dentro del directorio permitido
@@ -139,14 +171,29 @@ public class FileController {
                 return ResponseEntity.badRequest().body(response);
             }
             String fileExtension = originalFileName.substring(originalFileName.lastIndexOf("."));
-            String uniqueFileName = UUID.randomUUID().toString() + fileExtension;
+            String uniqueFileName;
+            boolean deduplicated = false;
+
+            if (contentAddressedUploads) {
+                // Nombre = SHA-256 del contenido: el mismo archivo se guarda una sola vez
+                StoredFile stored = storeContentAddressed(file.getInputStream(), uploadPath, fileExtension);
+                uniqueFileName = stored.fileName();
+                deduplicated = stored.alreadyExisted();
+            } else {
+                uniqueFileName = UUID.randomUUID().toString() + fileExtension;
+                Path filePath = uploadPath.resolve(uniqueFileName);
+                Files.copy(file.getInputStream(), filePath, StandardCopyOption.REPLACE_EXISTING);
+            }
 
-            Path filePath = uploadPath.resolve(uniqueFileName);
-            Files.copy(file.getInputStream(), filePath, StandardCopyOption.REPLACE_EXISTING);
+            // Miniaturas y sidecars .gz en segundo plano (no bloquean la respuesta)
+            Path storedPath = uploadPath.resolve(uniqueFileName);
+            imageDerivativeService.scheduleDerivatives(storedPath, contentType);
+            compressedSidecarService.scheduleSidecar(storedPath, contentType);
 
-            logger.info("Archivo subido exitosamente: {} (original: {})", uniqueFileName, originalFileName);
+            logger.info("Archivo subido exitosamente: {} (original: {}, deduplicado: {})", uniqueFileName, originalFileName, deduplicated);
             response.put("success", true);
-            response.put("message", "Archivo subido exitosamente");
+            response.put("message", deduplicated ? "El archivo ya existía, se reutiliza" : "Archivo subido exitosamente");
+            response.put("deduplicated", deduplicated);
             response.put("fileName", uniqueFileName);
             response.put("originalName", originalFileName);
             response.put("filePath", "activities/" + uniqueFileName);
@@ -169,16 +216,20 @@ public class FileController {
     }
 
     @GetMapping("/activities/{fileName}")
-    public ResponseEntity<Resource> downloadActivityFile(
+    public void downloadActivityFile(
             @PathVariable 
             @Pattern(regexp = "^[a-zA-Z0-9._-]{1,100}$", message = "Nombre de archivo inválido")
-            String fileName) {
+            String fileName,
+            @RequestParam(value = "w", required = false) Integer width,
+            HttpServletRequest request,
+            HttpServletResponse response) {
         
         try {
             // Validación de seguridad
             if (!isSecureFilePath(fileName, "activities")) {
                 logger.warn("Intento de acceso no autorizado al archivo: {}", fileName);
-                return ResponseEntity.badRequest().build();
+                response.setStatus(HttpStatus.BAD_REQUEST.value());
+                return;
             }
             
             // Construir path seguro
@@ -188,38 +239,64 @@ public class FileController {
             // Verificación adicional de seguridad
             if (!filePath.startsWith(basePath)) {
                 logger.error("Path traversal bloqueado: {}", filePath);
-                return ResponseEntity.badRequest().build();
+                response.setStatus(HttpStatus.BAD_REQUEST.value());
+                return;
             }
-            
-            Resource resource = new UrlResource(filePath.toUri());
 
-            if (resource.exists() && resource.isReadable()) {
-                // Determinar el tipo de contenido
-                String contentType = Files.probeContentType(filePath);
-                if (contentType == null) {
-                    contentType = "application/octet-stream";
+            if (Files.isRegularFile(filePath) && Files.isReadable(filePath)) {
+                // Con ?w= se sirve la miniatura más cercana (o el original si aún no existe)
+                boolean allowImmutable = true;
+                if (width != null && width > 0) {
+                    Path derivativePath = imageDerivativeService.resolve(filePath, width);
+                    // Si todavía no hay miniatura, la misma URL servirá otro archivo más adelante
+                    allowImmutable = !derivativePath.equals(filePath);
+                    filePath = derivativePath;
+                }
+
+                // Tipo de contenido cacheado por nombre de archivo
+                String contentType = fileStreamingService.contentTypeOf(filePath);
+
+                // Versión precomprimida (.gz) si el cliente acepta gzip; no aplica a pedidos por rango
+                Path bodyPath = filePath;
+                if (compressedSidecarService.isCompressible(contentType)) {
+                    response.setHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+                    if (request.getHeader(HttpHeaders.RANGE) == null) {
+                        Path sidecarPath = compressedSidecarService.resolveFor(request, filePath);
+                        if (sidecarPath != null) {
+                            bodyPath = sidecarPath;
+                        }
+                    }
+                }
+
+                // Cache-Control, ETag y Last-Modified; 304 si el cliente ya tiene el archivo
+                if (fileCachePolicy.applyAndCheckNotModified(request, response, bodyPath, allowImmutable)) {
+                    return;
+                }
+                if (bodyPath != filePath) {
+                    response.setHeader(HttpHeaders.CONTENT_ENCODING, "gzip");
                 }
                 
                 // Sanitizar el nombre del archivo para la respuesta
-                String safeFileName = StringUtils.cleanPath(resource.getFilename());
+                String safeFileName = StringUtils.cleanPath(filePath.getFileName().toString());
+                response.setHeader(HttpHeaders.CONTENT_DISPOSITION, "inline; filename=\"" + safeFileName + "\"");
 
-                return ResponseEntity.ok()
-                        .contentType(MediaType.parseMediaType(contentType))
-                        .header(HttpHeaders.CONTENT_DISPOSITION, "inline; filename=\"" + safeFileName + "\"")
-                        .body(resource);
+                // Soporta Range / 206 Partial Content y envía los bytes con sendfile o transferTo
+                boolean rangeAllowed = fileCachePolicy.isRangeAllowed(request, fileCachePolicy.validatorsFor(bodyPath));
+                fileStreamingService.send(request, response, bodyPath, contentType, rangeAllowed);
             } else {
                 logger.info("Archivo no encontrado o no legible: {}", fileName);
-                return ResponseEntity.notFound().build();
+                response.setStatus(HttpStatus.NOT_FOUND.value());
             }
-        } catch (MalformedURLException e) {
-            logger.error("URL malformada para archivo: {}", fileName, e);
-            return ResponseEntity.badRequest().build();
         } catch (IOException e) {
             logger.error("Error de E/O accediendo al archivo: {}", fileName, e);
-            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+            if (!response.isCommitted()) {
+                response.setStatus(HttpStatus.INTERNAL_SERVER_ERROR.value());
+            }
         } catch (Exception e) {
             logger.error("Error inesperado accediendo al archivo: {}", fileName, e);
-            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+            if (!response.isCommitted()) {
+                response.setStatus(HttpStatus.INTERNAL_SERVER_ERROR.value());
+            }
         }
     }
 
@@ -252,8 +329,21 @@ public class FileController {
                 return ResponseEntity.status(HttpStatus.FORBIDDEN).body(response);
             }
             
+            // Un archivo direccionado por contenido puede estar compartido entre actividades
+            if (CONTENT_HASH_FILENAME_PATTERN.matcher(fileName).matches()
+                    && activityRepository.existsByResourceFileUrl("/api/files/activities/" + fileName)) {
+                logger.info("Intento de eliminar archivo en uso por una actividad: {}", fileName);
+                response.put("success", false);
+                response.put("message", "El archivo está en uso por una actividad");
+                return ResponseEntity.status(HttpStatus.CONFLICT).body(response);
+            }
+            
             if (Files.exists(filePath)) {
                 Files.delete(filePath);
+                fileStreamingService.evict(fileName);
+                fileCachePolicy.evict(filePath);
+                imageDerivativeService.deleteDerivatives(filePath);
+                compressedSidecarService.deleteSidecar(filePath);
                 logger.info("Archivo eliminado exitosamente: {}", fileName);
                 response.put("success", true);
                 response.put("message", "Archivo eliminado exitosamente");
@@ -277,6 +367,51 @@ public class FileController {
         }
     }
 
+    /**
+     * Guarda el archivo con nombre igual al SHA-256 de su contenido.
+     * El contenido se lee una sola vez: se calcula el hash mientras se escribe a un temporal
+     * en el mismo directorio y luego se enlaza al nombre definitivo sin reemplazar uno existente.
+     */
+    static StoredFile storeContentAddressed(InputStream content, Path uploadPath, String fileExtension) throws IOException {
+        MessageDigest sha256;
+        try {
+            sha256 = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 no disponible", e);
+        }
+
+        Path tempFile = Files.createTempFile(uploadPath, "upload-", ".tmp");
+        try {
+            try (InputStream in = new DigestInputStream(content, sha256)) {
+                Files.copy(in, tempFile, StandardCopyOption.REPLACE_EXISTING);
+            }
+
+            String hashedFileName = HexFormat.of().formatHex(sha256.digest()) + fileExtension.toLowerCase(Locale.ROOT);
+            Path target = uploadPath.resolve(hashedFileName);
+            if (Files.exists(target)) {
+                return new StoredFile(hashedFileName, true);
+            }
+
+            // Un hard link (link(2)) nunca reemplaza el destino: si otra subida concurrente
+            // del mismo contenido llegó primero falla con FileAlreadyExistsException.
+            // ATOMIC_MOVE no sirve para esto: en Linux rename(2) reemplaza el destino sin avisar
+            try {
+                Files.createLink(target, tempFile);
+            } catch (FileAlreadyExistsException e) {
+                return new StoredFile(hashedFileName, true);
+            } catch (UnsupportedOperationException | FileSystemException e) {
+                // Sistema de archivos sin hard links: el reemplazo es inofensivo porque el contenido es idéntico
+                Files.move(tempFile, target, StandardCopyOption.ATOMIC_MOVE);
+            }
+            return new StoredFile(hashedFileName, false);
+        } finally {
+            Files.deleteIfExists(tempFile);
+        }
+    }
+
+    record StoredFile(String fileName, boolean alreadyExisted) {
+    }
+
     private boolean isValidFileType(String contentType) {
         if (contentType == null) return false;
         
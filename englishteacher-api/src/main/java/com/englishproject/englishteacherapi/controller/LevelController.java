@@ -1,11 +1,16 @@
 package com.englishproject.englishteacherapi.controller;
 
 import com.englishproject.englishteacherapi.dto.LevelDTO;
+import com.englishproject.englishteacherapi.service.CatalogSnapshotService;
+import com.englishproject.englishteacherapi.service.CatalogVersion;
 import com.englishproject.englishteacherapi.service.LevelService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.CacheControl;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 import java.util.List;
 
 @RestController
@@ -16,10 +21,34 @@ public class LevelController {
     @Autowired
     private LevelService levelService;
 
+    @Autowired
+    private CatalogVersion catalogVersion;
+
+    @Autowired
+    private CatalogSnapshotService catalogSnapshotService;
+
     @GetMapping
-    public ResponseEntity<List<LevelDTO>> getAllLevels() {
+    public ResponseEntity<?> getAllLevels(WebRequest webRequest) {
+        // GET condicional: sin cambios en el catálogo respondemos 304 con una sola lectura de la versión
+        long version = catalogVersion.current();
+        String etag = CatalogVersion.etag(version);
+        if (webRequest.checkNotModified(etag)) {
+            return null;
+        }
+        // Camino habitual: el JSON ya serializado del snapshot, sin ORM ni Jackson
+        byte[] snapshot = catalogSnapshotService.getLevelIndex(version);
+        if (snapshot != null) {
+            return ResponseEntity.ok()
+                    .eTag(etag)
+                    .cacheControl(CacheControl.noCache())
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .body(snapshot);
+        }
         List<LevelDTO> levels = levelService.getAllLevels();
-        return ResponseEntity.ok(levels);
+        return ResponseEntity.ok()
+                .eTag(etag)
+                .cacheControl(CacheControl.noCache())
+                .body(levels);
     }
 
     @GetMapping("/{id}")
@@ -0,0 +1,43 @@
+package com.englishproject.englishteacherapi.controller;
+
+import com.englishproject.englishteacherapi.service.MetricsRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+
+@RestController
+@RequestMapping("/api/metrics")
+public class MetricsController {
+
+    private static final MediaType PROMETHEUS_TEXT = MediaType.parseMediaType("text/plain; version=0.0.4; charset=utf-8");
+
+    @Autowired
+    private MetricsRegistry metricsRegistry;
+
+    // Token fijo para el scraper (los JWT expiran); sin token configurado el endpoint no existe
+    @Value("${app.metrics.scrape-token:}")
+    private String scrapeToken;
+
+    @GetMapping
+    public ResponseEntity<String> scrape(@RequestHeader(value = "X-Metrics-Token", required = false) String token) {
+        if (scrapeToken.isBlank()) {
+            return ResponseEntity.notFound().build();
+        }
+        if (token == null || !MessageDigest.isEqual(
+                token.getBytes(StandardCharsets.UTF_8), scrapeToken.getBytes(StandardCharsets.UTF_8))) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
+        }
+        return ResponseEntity.ok()
+                .contentType(PROMETHEUS_TEXT)
+                .body(metricsRegistry.scrape());
+    }
+}
@@ -0,0 +1,29 @@
+package com.englishproject.englishteacherapi.controller;
+
+import com.englishproject.englishteacherapi.config.StartupTimeline;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/startup")
+public class StartupTimelineController {
+
+    @Autowired
+    private StartupTimeline startupTimeline;
+
+    // Endpoint protegido con las fases del último arranque (ms desde el inicio de la JVM)
+    @GetMapping("/timeline")
+    public ResponseEntity<Map<String, Object>> getTimeline() {
+        Map<String, Object> response = new LinkedHashMap<>();
+        response.put("jvmStart", Instant.ofEpochMilli(startupTimeline.getJvmStartMillis()).toString());
+        response.put("phases", startupTimeline.getPhases());
+        return ResponseEntity.ok(response);
+    }
+}
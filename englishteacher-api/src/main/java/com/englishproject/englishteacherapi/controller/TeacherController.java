@@ -3,6 +3,7 @@ package com.englishproject.englishteacherapi.controller;
 import com.englishproject.englishteacherapi.dto.TeacherDTO;
 import com.englishproject.englishteacherapi.service.TeacherService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
@@ -14,6 +15,7 @@ import jakarta.validation.constraints.Positive;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.RejectedExecutionException;
 
 @RestController
 @RequestMapping("/api/teachers")
@@ -66,6 +68,9 @@ public class TeacherController {
             response.put("created_by", authenticatedEmail);
 
             return ResponseEntity.status(HttpStatus.CREATED).body(response);
+        } catch (RejectedExecutionException e) {
+            // Pool de BCrypt saturado: rechazo rápido para no afectar al resto del tráfico
+            return busyResponse(response);
         } catch (Exception e) {
             response.put("success", false);
             response.put("message", "Error al crear profesor: " + e.getMessage());
@@ -95,6 +100,9 @@ public class TeacherController {
                     response.put("message", "Profesor no encontrado");
                     return ResponseEntity.notFound().build();
                 });
+        } catch (RejectedExecutionException e) {
+            // Pool de BCrypt saturado: rechazo rápido para no afectar al resto del tráfico
+            return busyResponse(response);
         } catch (Exception e) {
             response.put("success", false);
             response.put("message", "Error al actualizar profesor: " + e.getMessage());
@@ -148,4 +156,12 @@ public class TeacherController {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(response);
         }
     }
+
+    private ResponseEntity<Map<String, Object>> busyResponse(Map<String, Object> response) {
+        response.put("success", false);
+        response.put("message", "Servidor ocupado, intente nuevamente en unos segundos");
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, "2")
+                .body(response);
+    }
 }
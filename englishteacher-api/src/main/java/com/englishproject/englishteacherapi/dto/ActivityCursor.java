@@ -0,0 +1,51 @@
+package com.englishproject.englishteacherapi.dto;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * Cursor de paginación keyset para actividades ordenadas por (createdAt DESC, id DESC).
+ * Se envía al cliente como texto opaco en Base64 URL-safe.
+ */
+public record ActivityCursor(LocalDateTime createdAt, Long id) {
+
+    // Cursor inicial: anterior a cualquier fecha e id reales
+    public static final ActivityCursor FIRST = new ActivityCursor(LocalDateTime.of(9999, 12, 31, 23, 59), Long.MAX_VALUE);
+
+    public static ActivityCursor after(ActivityDTO activity) {
+        return new ActivityCursor(activity.getCreatedAt(), activity.getId());
+    }
+
+    public static ActivityCursor after(ActivitySummaryDTO activity) {
+        return new ActivityCursor(activity.getCreatedAt(), activity.getId());
+    }
+
+    /**
+     * Decodifica un cursor recibido del cliente
+     * @throws IllegalArgumentException si el cursor no es válido
+     */
+    public static ActivityCursor decode(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return FIRST;
+        }
+        try {
+            String decoded = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int separator = decoded.lastIndexOf('|');
+            if (separator <= 0) {
+                throw new IllegalArgumentException("Cursor inválido");
+            }
+            return new ActivityCursor(
+                    LocalDateTime.parse(decoded.substring(0, separator)),
+                    Long.parseLong(decoded.substring(separator + 1)));
+        } catch (DateTimeParseException | NumberFormatException e) {
+            throw new IllegalArgumentException("Cursor inválido", e);
+        }
+    }
+
+    public String encode() {
+        String raw = createdAt + "|" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,11 @@
+package com.englishproject.englishteacherapi.dto;
+
+/**
+ * Resultado de búsqueda: la actividad y su puntaje de relevancia
+ */
+public record ActivitySearchHit(ActivityDTO activity, float score) {
+
+    public SearchCursor cursor() {
+        return new SearchCursor(score, activity.getId());
+    }
+}
@@ -0,0 +1,26 @@
+package com.englishproject.englishteacherapi.dto;
+
+import com.englishproject.englishteacherapi.model.Activity;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+import java.time.LocalDateTime;
+
+/**
+ * Versión resumida de una actividad para listados: no incluye description ni content.
+ * Se construye directamente desde JPQL, sin hidratar la entidad.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ActivitySummaryDTO {
+    private Long id;
+    private String title;
+    private Activity.ActivityType type;
+    private String resourceFileUrl;
+    private String resourceFileName;
+    private Long levelId;
+    private Boolean isActive;
+    private LocalDateTime createdAt;
+    private LocalDateTime updatedAt;
+}
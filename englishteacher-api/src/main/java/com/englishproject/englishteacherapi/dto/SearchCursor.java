@@ -0,0 +1,46 @@
+package com.englishproject.englishteacherapi.dto;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Cursor de paginación keyset para resultados de búsqueda ordenados por (score DESC, id DESC).
+ * Se envía al cliente como texto opaco en Base64 URL-safe.
+ */
+public record SearchCursor(float score, long id) {
+
+    // Cursor inicial: se devuelven los mejores resultados
+    public static final SearchCursor FIRST = new SearchCursor(Float.POSITIVE_INFINITY, Long.MAX_VALUE);
+
+    public boolean isFirst() {
+        return equals(FIRST);
+    }
+
+    /**
+     * Decodifica un cursor recibido del cliente
+     * @throws IllegalArgumentException si el cursor no es válido
+     */
+    public static SearchCursor decode(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return FIRST;
+        }
+        try {
+            String decoded = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int separator = decoded.lastIndexOf('|');
+            if (separator <= 0) {
+                throw new IllegalArgumentException("Cursor inválido");
+            }
+            return new SearchCursor(
+                    Float.parseFloat(decoded.substring(0, separator)),
+                    Long.parseLong(decoded.substring(separator + 1)));
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Cursor inválido", e);
+        }
+    }
+
+    public String encode() {
+        // Float.toString es exacto al volver a parsear, así la comparación de score no pierde precisión
+        String raw = Float.toString(score) + "|" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+}
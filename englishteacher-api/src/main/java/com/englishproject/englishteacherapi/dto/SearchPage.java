@@ -0,0 +1,19 @@
+package com.englishproject.englishteacherapi.dto;
+
+import java.util.List;
+
+/**
+ * Página de resultados de búsqueda y el cursor de la página siguiente (null si no hay más).
+ * El cursor sale del ranking y no de las actividades cargadas: si una actividad se elimina
+ * entre la búsqueda y la carga, la página llega con un resultado menos pero la paginación sigue.
+ */
+public record SearchPage(List<ActivitySearchHit> hits, SearchCursor next) {
+
+    /**
+     * Página de un motor que no descarta resultados al cargarlos: hay más si se llenó el límite
+     */
+    public static SearchPage of(List<ActivitySearchHit> hits, int limit) {
+        SearchCursor next = !hits.isEmpty() && hits.size() == limit ? hits.get(hits.size() - 1).cursor() : null;
+        return new SearchPage(hits, next);
+    }
+}
@@ -4,17 +4,25 @@ import jakarta.persistence.*;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 import lombok.AllArgsConstructor;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import java.time.LocalDateTime;
 
+// Los índices parciales sobre is_active = true se crean en DatabaseIndexInitializer
 @Entity
 @Table(name = "activities")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
 public class Activity {
 
+    // Secuencia con optimizador pooled: Hibernate reserva 50 ids por consulta y puede
+    // agrupar los INSERT en batches JDBC (con IDENTITY cada fila requiere su propio INSERT)
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "activities_seq")
+    @SequenceGenerator(name = "activities_seq", sequenceName = "activities_seq", allocationSize = 50)
     private Long id;
 
     @Column(nullable = false)
@@ -43,7 +51,8 @@ public class Activity {
     @Column
     private Boolean isActive = true;
 
-    @Column
+    // NOT NULL: la paginación keyset compara created_at y una fila nula nunca aparecería
+    @Column(nullable = false)
     private LocalDateTime createdAt = LocalDateTime.now();
 
     @Column
@@ -4,10 +4,11 @@ import jakarta.persistence.*;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 import lombok.AllArgsConstructor;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 
 @Entity
-@Table(name = "teachers")
+@Table(name = "teachers", indexes = {
+        @Index(name = "idx_teachers_email", columnList = "email")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -44,18 +45,7 @@ public class Teacher {
     @Column(length = 1000)
     private String specialties;
 
+    // Hash BCrypt; se genera y verifica con PasswordHashingService
     @Column(nullable = false)
     private String password;
-
-    private static final BCryptPasswordEncoder passwordEncoder = new BCryptPasswordEncoder();
-
-    // Método para establecer la contraseña con hash
-    public void setPasswordWithHash(String plainPassword) {
-        this.password = passwordEncoder.encode(plainPassword);
-    }
-
-    // Método para validar contraseña
-    public boolean validatePassword(String plainPassword) {
-        return passwordEncoder.matches(plainPassword, this.password);
-    }
 }
@@ -1,24 +1,130 @@
 package com.englishproject.englishteacherapi.repository;
 
+import com.englishproject.englishteacherapi.dto.ActivityDTO;
+import com.englishproject.englishteacherapi.dto.ActivitySummaryDTO;
 import com.englishproject.englishteacherapi.model.Activity;
 import com.englishproject.englishteacherapi.model.Level;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.stream.Stream;
 
 @Repository
 public interface ActivityRepository extends JpaRepository<Activity, Long> {
 
+    // Los finders públicos usan el query cache de Hibernate; cualquier escritura
+    // sobre la tabla activities (save/delete) invalida sus resultados automáticamente
     List<Activity> findByLevelAndIsActiveTrue(Level level);
 
+    boolean existsByResourceFileUrl(String resourceFileUrl);
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     @Query("SELECT a FROM Activity a WHERE a.level.id = :levelId AND a.isActive = true ORDER BY a.createdAt DESC")
     List<Activity> findActiveActivitiesByLevelId(@Param("levelId") Long levelId);
 
+    // Misma consulta proyectada a DTO para reconstruir el snapshot del catálogo sin hidratar entidades
+    @Query("SELECT new com.englishproject.englishteacherapi.dto.ActivityDTO(" +
+           "a.id, a.title, a.description, a.content, a.type, a.resourceFileUrl, a.resourceFileName, " +
+           "a.level.id, a.isActive, a.createdAt, a.updatedAt) " +
+           "FROM Activity a WHERE a.level.id = :levelId AND a.isActive = true ORDER BY a.createdAt DESC")
+    List<ActivityDTO> findActiveDTOsByLevelId(@Param("levelId") Long levelId);
+
+    // Carga por id de los resultados del índice de búsqueda en memoria
+    @Query("SELECT new com.englishproject.englishteacherapi.dto.ActivityDTO(" +
+           "a.id, a.title, a.description, a.content, a.type, a.resourceFileUrl, a.resourceFileName, " +
+           "a.level.id, a.isActive, a.createdAt, a.updatedAt) " +
+           "FROM Activity a WHERE a.id IN :ids")
+    List<ActivityDTO> findDTOsByIdIn(@Param("ids") Collection<Long> ids);
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     @Query("SELECT a FROM Activity a WHERE a.type = :type AND a.isActive = true")
     List<Activity> findByTypeAndIsActiveTrue(@Param("type") Activity.ActivityType type);
 
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     @Query("SELECT a FROM Activity a WHERE a.level.id = :levelId AND a.type = :type AND a.isActive = true")
     List<Activity> findByLevelIdAndTypeAndIsActiveTrue(@Param("levelId") Long levelId, @Param("type") Activity.ActivityType type);
+
+    // Paginación keyset: registros posteriores al cursor (createdAt, id) en orden descendente
+    @Query("SELECT a FROM Activity a " +
+           "WHERE a.createdAt < :createdAt OR (a.createdAt = :createdAt AND a.id < :id) " +
+           "ORDER BY a.createdAt DESC, a.id DESC")
+    List<Activity> findPageAfter(@Param("createdAt") LocalDateTime createdAt, @Param("id") Long id, Pageable pageable);
+
+    @Query("SELECT a FROM Activity a WHERE a.level.id = :levelId AND a.isActive = true " +
+           "AND (a.createdAt < :createdAt OR (a.createdAt = :createdAt AND a.id < :id)) " +
+           "ORDER BY a.createdAt DESC, a.id DESC")
+    List<Activity> findActivePageByLevelIdAfter(@Param("levelId") Long levelId,
+                                                @Param("createdAt") LocalDateTime createdAt, @Param("id") Long id,
+                                                Pageable pageable);
+
+    @Query("SELECT a FROM Activity a WHERE a.type = :type AND a.isActive = true " +
+           "AND (a.createdAt < :createdAt OR (a.createdAt = :createdAt AND a.id < :id)) " +
+           "ORDER BY a.createdAt DESC, a.id DESC")
+    List<Activity> findActivePageByTypeAfter(@Param("type") Activity.ActivityType type,
+                                             @Param("createdAt") LocalDateTime createdAt, @Param("id") Long id,
+                                             Pageable pageable);
+
+    @Query("SELECT a FROM Activity a WHERE a.level.id = :levelId AND a.type = :type AND a.isActive = true " +
+           "AND (a.createdAt < :createdAt OR (a.createdAt = :createdAt AND a.id < :id)) " +
+           "ORDER BY a.createdAt DESC, a.id DESC")
+    List<Activity> findActivePageByLevelIdAndTypeAfter(@Param("levelId") Long levelId, @Param("type") Activity.ActivityType type,
+                                                       @Param("createdAt") LocalDateTime createdAt, @Param("id") Long id,
+                                                       Pageable pageable);
+
+    // Proyecciones resumidas para listados (sin description ni content, sin hidratar entidades)
+    String SUMMARY_SELECT = "SELECT new com.englishproject.englishteacherapi.dto.ActivitySummaryDTO(" +
+            "a.id, a.title, a.type, a.resourceFileUrl, a.resourceFileName, a.level.id, a.isActive, a.createdAt, a.updatedAt) " +
+            "FROM Activity a ";
+
+    @Query(SUMMARY_SELECT +
+           "WHERE a.createdAt < :createdAt OR (a.createdAt = :createdAt AND a.id < :id) " +
+           "ORDER BY a.createdAt DESC, a.id DESC")
+    List<ActivitySummaryDTO> findSummariesAfter(@Param("createdAt") LocalDateTime createdAt, @Param("id") Long id,
+                                                Pageable pageable);
+
+    @Query(SUMMARY_SELECT + "WHERE a.level.id = :levelId AND a.isActive = true " +
+           "AND (a.createdAt < :createdAt OR (a.createdAt = :createdAt AND a.id < :id)) " +
+           "ORDER BY a.createdAt DESC, a.id DESC")
+    List<ActivitySummaryDTO> findActiveSummariesByLevelIdAfter(@Param("levelId") Long levelId,
+                                                               @Param("createdAt") LocalDateTime createdAt, @Param("id") Long id,
+                                                               Pageable pageable);
+
+    @Query(SUMMARY_SELECT + "WHERE a.type = :type AND a.isActive = true " +
+           "AND (a.createdAt < :createdAt OR (a.createdAt = :createdAt AND a.id < :id)) " +
+           "ORDER BY a.createdAt DESC, a.id DESC")
+    List<ActivitySummaryDTO> findActiveSummariesByTypeAfter(@Param("type") Activity.ActivityType type,
+                                                            @Param("createdAt") LocalDateTime createdAt, @Param("id") Long id,
+                                                            Pageable pageable);
+
+    @Query(SUMMARY_SELECT + "WHERE a.level.id = :levelId AND a.type = :type AND a.isActive = true " +
+           "AND (a.createdAt < :createdAt OR (a.createdAt = :createdAt AND a.id < :id)) " +
+           "ORDER BY a.createdAt DESC, a.id DESC")
+    List<ActivitySummaryDTO> findActiveSummariesByLevelIdAndTypeAfter(@Param("levelId") Long levelId, @Param("type") Activity.ActivityType type,
+                                                                      @Param("createdAt") LocalDateTime createdAt, @Param("id") Long id,
+                                                                      Pageable pageable);
+
+    // Consultas en streaming (usar dentro de una transacción y cerrar el Stream)
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query("SELECT a FROM Activity a ORDER BY a.createdAt DESC, a.id DESC")
+    Stream<Activity> streamAll();
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query("SELECT a FROM Activity a WHERE a.level.id = :levelId AND a.isActive = true ORDER BY a.createdAt DESC, a.id DESC")
+    Stream<Activity> streamActiveByLevelId(@Param("levelId") Long levelId);
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query("SELECT a FROM Activity a WHERE a.type = :type AND a.isActive = true ORDER BY a.createdAt DESC, a.id DESC")
+    Stream<Activity> streamActiveByType(@Param("type") Activity.ActivityType type);
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query("SELECT a FROM Activity a WHERE a.level.id = :levelId AND a.type = :type AND a.isActive = true ORDER BY a.createdAt DESC, a.id DESC")
+    Stream<Activity> streamActiveByLevelIdAndType(@Param("levelId") Long levelId, @Param("type") Activity.ActivityType type);
 }
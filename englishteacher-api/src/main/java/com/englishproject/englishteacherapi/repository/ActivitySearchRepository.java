@@ -0,0 +1,87 @@
+package com.englishproject.englishteacherapi.repository;
+
+import com.englishproject.englishteacherapi.dto.ActivityDTO;
+import com.englishproject.englishteacherapi.dto.ActivitySearchHit;
+import com.englishproject.englishteacherapi.dto.SearchCursor;
+import com.englishproject.englishteacherapi.model.Activity;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Búsqueda de texto completo sobre la columna generada activities.search_vector
+ * (tsvector con índice GIN, creada en DatabaseIndexInitializer).
+ * JPA no mapea tsvector, por eso se consulta con SQL nativo.
+ */
+@Repository
+public class ActivitySearchRepository {
+
+    // El rango se calcula en la subconsulta para poder filtrar por cursor y ordenar por él
+    private static final String SEARCH_SELECT =
+            "SELECT * FROM (" +
+            "SELECT a.id, a.title, a.description, a.content, a.type, a.resource_file_url, a.resource_file_name, " +
+            "a.level_id, a.is_active, a.created_at, a.updated_at, ts_rank(a.search_vector, q) AS score " +
+            "FROM activities a, websearch_to_tsquery('simple', ?) q " +
+            "WHERE a.is_active = true AND a.search_vector @@ q";
+
+    private static final RowMapper<ActivitySearchHit> HIT_MAPPER = (rs, rowNum) -> new ActivitySearchHit(
+            new ActivityDTO(
+                    rs.getLong("id"),
+                    rs.getString("title"),
+                    rs.getString("description"),
+                    rs.getString("content"),
+                    Activity.ActivityType.valueOf(rs.getString("type")),
+                    rs.getString("resource_file_url"),
+                    rs.getString("resource_file_name"),
+                    rs.getLong("level_id"),
+                    rs.getBoolean("is_active"),
+                    toLocalDateTime(rs.getTimestamp("created_at")),
+                    toLocalDateTime(rs.getTimestamp("updated_at"))),
+            rs.getFloat("score"));
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    /**
+     * Actividades activas que coinciden con la consulta, de mayor a menor relevancia
+     * @param query texto libre (admite "frases", OR y -exclusiones)
+     * @param levelId filtro opcional por nivel
+     * @param type filtro opcional por tipo
+     * @param after cursor keyset (score, id) desde el que continuar
+     * @param limit tamaño de página
+     */
+    public List<ActivitySearchHit> search(String query, Long levelId, Activity.ActivityType type,
+                                          SearchCursor after, int limit) {
+        StringBuilder sql = new StringBuilder(SEARCH_SELECT);
+        List<Object> params = new ArrayList<>();
+        params.add(query);
+        if (levelId != null) {
+            sql.append(" AND a.level_id = ?");
+            params.add(levelId);
+        }
+        if (type != null) {
+            sql.append(" AND a.type = ?");
+            params.add(type.name());
+        }
+        sql.append(") r");
+        if (!after.isFirst()) {
+            sql.append(" WHERE r.score < CAST(? AS real) OR (r.score = CAST(? AS real) AND r.id < ?)");
+            params.add(after.score());
+            params.add(after.score());
+            params.add(after.id());
+        }
+        sql.append(" ORDER BY r.score DESC, r.id DESC LIMIT ?");
+        params.add(limit);
+        return jdbcTemplate.query(sql.toString(), HIT_MAPPER, params.toArray());
+    }
+
+    private static LocalDateTime toLocalDateTime(Timestamp timestamp) {
+        return timestamp != null ? timestamp.toLocalDateTime() : null;
+    }
+}
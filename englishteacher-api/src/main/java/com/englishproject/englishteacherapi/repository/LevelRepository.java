@@ -1,10 +1,14 @@
 package com.englishproject.englishteacherapi.repository;
 
+import java.util.List;
 import java.util.Optional;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import com.englishproject.englishteacherapi.dto.LevelDTO;
 import com.englishproject.englishteacherapi.model.Level;
 
 @Repository
@@ -12,4 +16,20 @@ public interface LevelRepository extends JpaRepository<Level, Long> {
 
     Optional<Level> findByName(String name);
 
+    // Proyecciones con el conteo de actividades activas en una sola consulta agrupada
+    @Query("SELECT new com.englishproject.englishteacherapi.dto.LevelDTO(l.id, l.name, l.description, COUNT(a)) " +
+           "FROM Level l LEFT JOIN l.activities a ON a.isActive = true " +
+           "GROUP BY l.id, l.name, l.description ORDER BY l.id")
+    List<LevelDTO> findAllWithActiveActivitiesCount();
+
+    @Query("SELECT new com.englishproject.englishteacherapi.dto.LevelDTO(l.id, l.name, l.description, COUNT(a)) " +
+           "FROM Level l LEFT JOIN l.activities a ON a.isActive = true " +
+           "WHERE l.id = :id GROUP BY l.id, l.name, l.description")
+    Optional<LevelDTO> findByIdWithActiveActivitiesCount(@Param("id") Long id);
+
+    @Query("SELECT new com.englishproject.englishteacherapi.dto.LevelDTO(l.id, l.name, l.description, COUNT(a)) " +
+           "FROM Level l LEFT JOIN l.activities a ON a.isActive = true " +
+           "WHERE l.name = :name GROUP BY l.id, l.name, l.description")
+    Optional<LevelDTO> findByNameWithActiveActivitiesCount(@Param("name") String name);
+
 }
@@ -0,0 +1,55 @@
+package com.englishproject.englishteacherapi.service;
+
+import com.englishproject.englishteacherapi.dto.SearchCursor;
+import com.englishproject.englishteacherapi.dto.SearchPage;
+import com.englishproject.englishteacherapi.model.Activity;
+import com.englishproject.englishteacherapi.repository.ActivitySearchRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.util.Map;
+
+@Service
+public class ActivitySearchService {
+
+    public static final int MAX_QUERY_LENGTH = 200;
+
+    @Autowired
+    private ActivitySearchRepository activitySearchRepository;
+
+    // Solo existe con app.search.engine=memory; si no, se busca en PostgreSQL
+    @Autowired(required = false)
+    private InMemoryActivityIndex inMemoryActivityIndex;
+
+    /**
+     * Busca en título, descripción y contenido de las actividades activas.
+     * PostgreSQL interpreta la consulta con websearch_to_tsquery; el índice en memoria
+     * exige todos los términos y admite prefijos con *.
+     * @param query texto libre, no vacío y de hasta MAX_QUERY_LENGTH caracteres
+     * @param levelId filtro opcional por nivel
+     * @param type filtro opcional por tipo
+     * @param after cursor keyset desde el que continuar
+     * @param limit tamaño de página
+     * @throws IllegalArgumentException si la consulta está vacía o es demasiado larga
+     */
+    public SearchPage search(String query, Long levelId, Activity.ActivityType type,
+                             SearchCursor after, int limit) {
+        if (query == null || query.isBlank()) {
+            throw new IllegalArgumentException("La consulta de búsqueda es obligatoria");
+        }
+        if (query.length() > MAX_QUERY_LENGTH) {
+            throw new IllegalArgumentException("La consulta no puede exceder " + MAX_QUERY_LENGTH + " caracteres");
+        }
+        if (inMemoryActivityIndex != null) {
+            return inMemoryActivityIndex.search(query.trim(), levelId, type, after, limit);
+        }
+        return SearchPage.of(activitySearchRepository.search(query.trim(), levelId, type, after, limit), limit);
+    }
+
+    /**
+     * Tamaño del índice en memoria, o null si la búsqueda usa PostgreSQL
+     */
+    public Map<String, Object> indexFootprint() {
+        return inMemoryActivityIndex != null ? inMemoryActivityIndex.footprint() : null;
+    }
+}
@@ -1,16 +1,32 @@
 package com.englishproject.englishteacherapi.service;
 
+import com.englishproject.englishteacherapi.dto.ActivityCursor;
 import com.englishproject.englishteacherapi.dto.ActivityDTO;
+import com.englishproject.englishteacherapi.dto.ActivitySummaryDTO;
 import com.englishproject.englishteacherapi.model.Activity;
 import com.englishproject.englishteacherapi.model.Level;
 import com.englishproject.englishteacherapi.repository.ActivityRepository;
 import com.englishproject.englishteacherapi.repository.LevelRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.function.Consumer;
+import java.util.function.Function;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
 public class ActivityService {
@@ -21,6 +37,16 @@ public class ActivityService {
     @Autowired
     private LevelRepository levelRepository;
 
+    @Autowired
+    private CatalogSnapshotService catalogSnapshotService;
+
+    // Solo con app.search.engine=memory
+    @Autowired(required = false)
+    private InMemoryActivityIndex inMemoryActivityIndex;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
     public List<ActivityDTO> getAllActivities() {
         return activityRepository.findAll().stream()
                 .map(this::convertToDTO)
@@ -50,6 +76,89 @@ public class ActivityService {
                 .collect(Collectors.toList());
     }
 
+    // Variantes paginadas (keyset sobre createdAt, id)
+
+    public List<ActivityDTO> getAllActivities(ActivityCursor after, int limit) {
+        return toDTOs(activityRepository.findPageAfter(after.createdAt(), after.id(), firstPage(limit)));
+    }
+
+    public List<ActivityDTO> getActivitiesByLevelId(Long levelId, ActivityCursor after, int limit) {
+        return toDTOs(activityRepository.findActivePageByLevelIdAfter(levelId, after.createdAt(), after.id(), firstPage(limit)));
+    }
+
+    public List<ActivityDTO> getActivitiesByType(Activity.ActivityType type, ActivityCursor after, int limit) {
+        return toDTOs(activityRepository.findActivePageByTypeAfter(type, after.createdAt(), after.id(), firstPage(limit)));
+    }
+
+    public List<ActivityDTO> getActivitiesByLevelAndType(Long levelId, Activity.ActivityType type, ActivityCursor after, int limit) {
+        return toDTOs(activityRepository.findActivePageByLevelIdAndTypeAfter(levelId, type, after.createdAt(), after.id(), firstPage(limit)));
+    }
+
+    /**
+     * Listado resumido (sin description ni content) proyectado directamente desde JPQL
+     * @param levelId filtro opcional por nivel (solo activas)
+     * @param type filtro opcional por tipo (solo activas)
+     * @param after cursor keyset desde el que continuar
+     * @param limit tamaño de página, o null para devolver todo
+     */
+    public List<ActivitySummaryDTO> getActivitySummaries(Long levelId, Activity.ActivityType type,
+                                                         ActivityCursor after, Integer limit) {
+        Pageable pageable = limit != null ? firstPage(limit) : Pageable.unpaged();
+        if (levelId != null && type != null) {
+            return activityRepository.findActiveSummariesByLevelIdAndTypeAfter(levelId, type, after.createdAt(), after.id(), pageable);
+        }
+        if (levelId != null) {
+            return activityRepository.findActiveSummariesByLevelIdAfter(levelId, after.createdAt(), after.id(), pageable);
+        }
+        if (type != null) {
+            return activityRepository.findActiveSummariesByTypeAfter(type, after.createdAt(), after.id(), pageable);
+        }
+        return activityRepository.findSummariesAfter(after.createdAt(), after.id(), pageable);
+    }
+
+    /**
+     * Recorre las actividades fila a fila sin materializar la lista completa.
+     * Cada entidad se desacopla del contexto de persistencia después de convertirla
+     * para que el uso de memoria no crezca con el tamaño del catálogo.
+     * @param levelId filtro opcional por nivel (solo activas)
+     * @param type filtro opcional por tipo (solo activas)
+     * @param consumer recibe cada actividad convertida a DTO
+     */
+    @Transactional(readOnly = true)
+    public void streamActivities(Long levelId, Activity.ActivityType type, Consumer<ActivityDTO> consumer) {
+        try (Stream<Activity> activities = openStream(levelId, type)) {
+            activities.forEach(activity -> {
+                consumer.accept(convertToDTO(activity));
+                entityManager.detach(activity);
+            });
+        }
+    }
+
+    private Stream<Activity> openStream(Long levelId, Activity.ActivityType type) {
+        if (levelId != null && type != null) {
+            return activityRepository.streamActiveByLevelIdAndType(levelId, type);
+        }
+        if (levelId != null) {
+            return activityRepository.streamActiveByLevelId(levelId);
+        }
+        if (type != null) {
+            return activityRepository.streamActiveByType(type);
+        }
+        return activityRepository.streamAll();
+    }
+
+    private Pageable firstPage(int limit) {
+        // El desplazamiento lo define el cursor, siempre se pide la primera página
+        return PageRequest.of(0, limit);
+    }
+
+    private List<ActivityDTO> toDTOs(List<Activity> activities) {
+        return activities.stream()
+                .map(this::convertToDTO)
+                .collect(Collectors.toList());
+    }
+
+    @Transactional
     public ActivityDTO createActivity(ActivityDTO activityDTO) {
         Optional<Level> level = levelRepository.findById(activityDTO.getLevelId());
         if (level.isPresent()) {
@@ -58,39 +167,155 @@ public class ActivityService {
             activity.setCreatedAt(LocalDateTime.now());
             activity.setUpdatedAt(LocalDateTime.now());
             Activity savedActivity = activityRepository.save(activity);
-            return convertToDTO(savedActivity);
+            catalogSnapshotService.activitiesChanged(level.get().getId());
+            return indexed(convertToDTO(savedActivity));
         }
         throw new IllegalArgumentException("Level not found with id: " + activityDTO.getLevelId());
     }
 
+    @Transactional
     public Optional<ActivityDTO> updateActivity(Long id, ActivityDTO activityDTO) {
         return activityRepository.findById(id)
                 .map(activity -> {
                     updateActivityFromDTO(activity, activityDTO);
                     activity.setUpdatedAt(LocalDateTime.now());
                     Activity savedActivity = activityRepository.save(activity);
-                    return convertToDTO(savedActivity);
+                    catalogSnapshotService.activitiesChanged(savedActivity.getLevel().getId());
+                    return indexed(convertToDTO(savedActivity));
                 });
     }
 
+    @Transactional
     public boolean deleteActivity(Long id) {
-        if (activityRepository.existsById(id)) {
+        Optional<Activity> activity = activityRepository.findById(id);
+        if (activity.isPresent()) {
+            Long levelId = activity.get().getLevel().getId();
             activityRepository.deleteById(id);
+            catalogSnapshotService.activitiesChanged(levelId);
+            if (inMemoryActivityIndex != null) {
+                inMemoryActivityIndex.activityDeleted(id);
+            }
             return true;
         }
         return false;
     }
 
+    @Transactional
     public Optional<ActivityDTO> deactivateActivity(Long id) {
         return activityRepository.findById(id)
                 .map(activity -> {
                     activity.setIsActive(false);
                     activity.setUpdatedAt(LocalDateTime.now());
                     Activity savedActivity = activityRepository.save(activity);
-                    return convertToDTO(savedActivity);
+                    catalogSnapshotService.activitiesChanged(savedActivity.getLevel().getId());
+                    return indexed(convertToDTO(savedActivity));
                 });
     }
 
+    // Operaciones masivas: una sola transacción, niveles resueltos en una consulta
+    // y los INSERT/UPDATE agrupados en batches JDBC (hibernate.jdbc.batch_size)
+
+    /**
+     * Crea varias actividades en una transacción
+     * @throws IllegalArgumentException si algún nivel no existe (no se crea ninguna)
+     */
+    @Transactional
+    public List<ActivityDTO> createActivities(List<ActivityDTO> activityDTOs) {
+        Set<Long> levelIds = activityDTOs.stream()
+                .map(ActivityDTO::getLevelId)
+                .collect(Collectors.toSet());
+        Map<Long, Level> levels = levelRepository.findAllById(levelIds).stream()
+                .collect(Collectors.toMap(Level::getId, Function.identity()));
+        if (levels.size() != levelIds.size()) {
+            Set<Long> missing = new TreeSet<>(levelIds);
+            missing.removeAll(levels.keySet());
+            throw new IllegalArgumentException("Level not found with id: " + missing);
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        List<Activity> activities = new ArrayList<>(activityDTOs.size());
+        for (ActivityDTO activityDTO : activityDTOs) {
+            Activity activity = convertToEntity(activityDTO);
+            activity.setLevel(levels.get(activityDTO.getLevelId()));
+            activity.setCreatedAt(now);
+            activity.setUpdatedAt(now);
+            activities.add(activity);
+        }
+        List<Activity> savedActivities = activityRepository.saveAll(activities);
+        catalogSnapshotService.activitiesChanged(levelIds);
+        return indexed(toDTOs(savedActivities));
+    }
+
+    /**
+     * Actualiza varias actividades (identificadas por su id) en una transacción
+     * @throws IllegalArgumentException si algún id no existe (no se modifica ninguna)
+     */
+    @Transactional
+    public List<ActivityDTO> updateActivities(List<ActivityDTO> activityDTOs) {
+        Map<Long, Activity> activities = findAllByIdOrFail(activityDTOs.stream()
+                .map(ActivityDTO::getId)
+                .collect(Collectors.toSet()));
+
+        LocalDateTime now = LocalDateTime.now();
+        List<Activity> updatedActivities = new ArrayList<>(activityDTOs.size());
+        for (ActivityDTO activityDTO : activityDTOs) {
+            Activity activity = activities.get(activityDTO.getId());
+            updateActivityFromDTO(activity, activityDTO);
+            activity.setUpdatedAt(now);
+            updatedActivities.add(activity);
+        }
+        catalogSnapshotService.activitiesChanged(levelIdsOf(activities.values()));
+        return indexed(toDTOs(updatedActivities));
+    }
+
+    /**
+     * Desactiva varias actividades en una transacción
+     * @throws IllegalArgumentException si algún id no existe (no se desactiva ninguna)
+     */
+    @Transactional
+    public List<ActivityDTO> deactivateActivities(List<Long> ids) {
+        Map<Long, Activity> activities = findAllByIdOrFail(new HashSet<>(ids));
+
+        LocalDateTime now = LocalDateTime.now();
+        for (Activity activity : activities.values()) {
+            activity.setIsActive(false);
+            activity.setUpdatedAt(now);
+        }
+        catalogSnapshotService.activitiesChanged(levelIdsOf(activities.values()));
+        return indexed(toDTOs(new ArrayList<>(activities.values())));
+    }
+
+    private Map<Long, Activity> findAllByIdOrFail(Set<Long> ids) {
+        Map<Long, Activity> activities = activityRepository.findAllById(ids).stream()
+                .collect(Collectors.toMap(Activity::getId, Function.identity()));
+        if (activities.size() != ids.size()) {
+            Set<Long> missing = new TreeSet<>(ids);
+            missing.removeAll(activities.keySet());
+            throw new IllegalArgumentException("Activity not found with id: " + missing);
+        }
+        return activities;
+    }
+
+    private Set<Long> levelIdsOf(Collection<Activity> activities) {
+        return activities.stream()
+                .map(activity -> activity.getLevel().getId())
+                .collect(Collectors.toSet());
+    }
+
+    // Mantiene el índice de búsqueda en memoria (si está habilitado) luego del commit
+
+    private ActivityDTO indexed(ActivityDTO activity) {
+        if (inMemoryActivityIndex != null) {
+            inMemoryActivityIndex.activityChanged(activity);
+        }
+        return activity;
+    }
+
+    private List<ActivityDTO> indexed(List<ActivityDTO> activities) {
+        activities.forEach(this::indexed);
+        return activities;
+    }
+
     private ActivityDTO convertToDTO(Activity activity) {
         return new ActivityDTO(
                 activity.getId(),
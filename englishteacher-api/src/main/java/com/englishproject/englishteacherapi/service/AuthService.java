@@ -13,16 +13,25 @@ public class AuthService {
     @Autowired
     private TeacherRepository teacherRepository;
 
+    @Autowired
+    private PasswordHashingService passwordHashingService;
+
     /**
      * Autentica a un profesor con email y contraseña
      * @param email Email del profesor
      * @param password Contraseña en texto plano
      * @return Optional<Teacher> con el profesor si la autenticación es exitosa
+     * @throws java.util.concurrent.RejectedExecutionException si el pool de BCrypt está saturado
      */
     public Optional<Teacher> authenticateTeacher(String email, String password) {
         Optional<Teacher> teacher = teacherRepository.findByEmail(email);
 
-        if (teacher.isPresent() && teacher.get().validatePassword(password)) {
+        if (teacher.isPresent() && passwordHashingService.matches(password, teacher.get().getPassword())) {
+            // Si cambió el cost factor configurado, se regenera el hash con la contraseña ya validada
+            if (passwordHashingService.needsRehash(teacher.get().getPassword())) {
+                teacher.get().setPassword(passwordHashingService.hash(password));
+                teacherRepository.save(teacher.get());
+            }
             return teacher;
         }
 
@@ -0,0 +1,183 @@
+package com.englishproject.englishteacherapi.service;
+
+import com.englishproject.englishteacherapi.dto.LevelDTO;
+import com.englishproject.englishteacherapi.repository.ActivityRepository;
+import com.englishproject.englishteacherapi.repository.LevelRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import tools.jackson.databind.ObjectMapper;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+/**
+ * Snapshot materializado del catálogo público: el índice de niveles y las
+ * actividades activas de cada nivel, ya serializados a JSON.
+ * Las lecturas devuelven el arreglo de bytes tal cual, sin pasar por Hibernate ni Jackson.
+ * El contenido está asociado a la versión de CatalogVersion con la que se construyó:
+ * - una escritura local incrementa la versión en su propia transacción y, después del commit,
+ *   reconstruye solo la parte afectada
+ * - si otra réplica escribió, la versión leída de la base es más nueva que la del snapshot
+ *   y todo se descarta; cada parte se vuelve a construir en la primera lectura
+ * Como la versión se lee antes de consultar el contenido, un ETag nuevo nunca se sirve
+ * con el contenido anterior.
+ */
+@Service
+public class CatalogSnapshotService {
+
+    private static final Logger logger = LoggerFactory.getLogger(CatalogSnapshotService.class);
+
+    @Autowired
+    private ActivityRepository activityRepository;
+
+    @Autowired
+    private LevelRepository levelRepository;
+
+    @Autowired
+    private CatalogVersion catalogVersion;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    // Versión de CatalogVersion a la que corresponde el contenido; -1 antes de la primera lectura
+    private long snapshotVersion = -1;
+
+    // null hasta que se construye para snapshotVersion
+    private volatile byte[] levelIndex;
+    private volatile Set<Long> levelIds = Set.of();
+
+    private final Map<Long, byte[]> activitiesByLevel = new ConcurrentHashMap<>();
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void buildAll() {
+        long version = catalogVersion.current();
+        getLevelIndex(version);
+        Set<Long> levels = levelIds;
+        levels.forEach(levelId -> getActivitiesByLevel(levelId, version));
+        logger.info("Snapshot del catálogo construido para {} niveles", levels.size());
+    }
+
+    /**
+     * JSON de GET /api/levels para la versión indicada,
+     * o null si el snapshot ya avanzó a una versión posterior (la lectura va a la base de datos)
+     */
+    public byte[] getLevelIndex(long version) {
+        if (!advanceTo(version)) {
+            return null;
+        }
+        byte[] index = levelIndex;
+        return index != null ? index : rebuildLevelIndex(version);
+    }
+
+    /**
+     * JSON de las actividades activas de un nivel para la versión indicada,
+     * o null si el nivel no existe o el snapshot ya avanzó a una versión posterior
+     */
+    public byte[] getActivitiesByLevel(Long levelId, long version) {
+        if (getLevelIndex(version) == null) {
+            return null;
+        }
+        byte[] activities = activitiesByLevel.get(levelId);
+        if (activities != null || !levelIds.contains(levelId)) {
+            return activities;
+        }
+        return rebuildLevel(levelId, version);
+    }
+
+    // Los métodos de notificación deben llamarse dentro de la transacción que escribe
+
+    /**
+     * Cambiaron actividades de un nivel: se regeneran ese nivel y el índice (por el conteo de actividades)
+     */
+    public void activitiesChanged(Long levelId) {
+        refresh(List.of(levelId));
+    }
+
+    /**
+     * Variante para operaciones masivas: cada nivel se regenera una vez y el índice una sola vez
+     */
+    public void activitiesChanged(Collection<Long> levelIds) {
+        refresh(levelIds);
+    }
+
+    /**
+     * Se creó, modificó o eliminó un nivel
+     */
+    public void levelChanged(Long levelId) {
+        refresh(List.of(levelId));
+    }
+
+    /**
+     * Incrementa la versión dentro de la transacción que escribe: queda confirmada junto con los datos
+     * (o se descarta con ellos), así ninguna réplica puede quedar respondiendo 304 con contenido viejo.
+     * Solo la reconstrucción del snapshot local espera al commit.
+     */
+    private void refresh(Collection<Long> changedLevels) {
+        long version = catalogVersion.increment();
+        AfterCommit.run(() -> {
+            try {
+                synchronized (this) {
+                    if (version == snapshotVersion + 1) {
+                        // Nadie más escribió desde la versión del snapshot: solo cambió lo de esta escritura
+                        snapshotVersion = version;
+                        levelIndex = null;
+                        changedLevels.forEach(activitiesByLevel::remove);
+                    } else {
+                        advanceTo(version);
+                    }
+                }
+                // Se reconstruye ahora para que la próxima lectura no pague la consulta
+                getLevelIndex(version);
+                changedLevels.forEach(levelId -> getActivitiesByLevel(levelId, version));
+            } catch (RuntimeException e) {
+                // La versión ya está confirmada: lo que no se pudo reconstruir se vuelve a intentar en la próxima lectura
+                logger.error("No se pudo actualizar el snapshot del catálogo para los niveles {}", changedLevels, e);
+            }
+        });
+    }
+
+    /**
+     * Descarta el contenido si la versión es más nueva que la del snapshot.
+     * @return false si la versión es anterior a la del snapshot
+     */
+    private synchronized boolean advanceTo(long version) {
+        if (version > snapshotVersion) {
+            snapshotVersion = version;
+            levelIndex = null;
+            levelIds = Set.of();
+            activitiesByLevel.clear();
+        }
+        return version == snapshotVersion;
+    }
+
+    private byte[] rebuildLevel(Long levelId, long version) {
+        byte[] activities = objectMapper.writeValueAsBytes(activityRepository.findActiveDTOsByLevelId(levelId));
+        synchronized (this) {
+            // Si mientras tanto llegó una versión nueva, el resultado solo sirve para esta respuesta
+            if (version == snapshotVersion) {
+                activitiesByLevel.put(levelId, activities);
+            }
+        }
+        return activities;
+    }
+
+    private byte[] rebuildLevelIndex(long version) {
+        List<LevelDTO> levels = levelRepository.findAllWithActiveActivitiesCount();
+        byte[] index = objectMapper.writeValueAsBytes(levels);
+        synchronized (this) {
+            if (version == snapshotVersion) {
+                levelIndex = index;
+                levelIds = levels.stream().map(LevelDTO::getId).collect(Collectors.toUnmodifiableSet());
+            }
+        }
+        return index;
+    }
+}
@@ -0,0 +1,66 @@
+package com.englishproject.englishteacherapi.service;
+
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Versión del catálogo público (niveles y actividades).
+ * Vive en una fila de la base (tabla catalog_version) para que todas las réplicas
+ * respondan el mismo ETag: una escritura en cualquier instancia invalida los 304 de las demás.
+ * Se incrementa en cada escritura de ActivityService y LevelService (vía
+ * CatalogSnapshotService, dentro de la misma transacción que los datos) y se usa como ETag
+ * para responder 304 Not Modified sin cargar entidades.
+ */
+@Component
+public class CatalogVersion {
+
+    private static final String SELECT_VERSION = "SELECT version FROM catalog_version WHERE id = 1";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @PostConstruct
+    void createVersionRow() {
+        jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS catalog_version (" +
+                "id integer PRIMARY KEY, version bigint NOT NULL)");
+        // Arranca con el instante actual para que una tabla recreada nunca reutilice ETags anteriores
+        jdbcTemplate.update("INSERT INTO catalog_version (id, version) VALUES (1, ?) ON CONFLICT DO NOTHING",
+                System.currentTimeMillis());
+    }
+
+    /**
+     * Versión vigente según la base (una lectura por clave primaria)
+     */
+    public long current() {
+        return jdbcTemplate.queryForObject(SELECT_VERSION, Long.class);
+    }
+
+    /**
+     * Marca el catálogo como modificado y devuelve la versión nueva.
+     * Se une a la transacción de la escritura, así el incremento se confirma o se revierte con ella.
+     * El lock de la fila (hasta el commit) serializa las escrituras del catálogo y garantiza que
+     * el valor devuelto es el de este incremento.
+     */
+    @Transactional
+    public long increment() {
+        jdbcTemplate.update("UPDATE catalog_version SET version = version + 1 WHERE id = 1");
+        return jdbcTemplate.queryForObject(SELECT_VERSION, Long.class);
+    }
+
+    /**
+     * ETag (strong) de la versión actual
+     */
+    public String etag() {
+        return etag(current());
+    }
+
+    /**
+     * ETag (strong) de una versión ya leída
+     */
+    public static String etag(long version) {
+        return "\"catalog-" + version + "\"";
+    }
+}
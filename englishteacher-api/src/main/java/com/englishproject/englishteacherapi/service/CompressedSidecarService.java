@@ -0,0 +1,136 @@
+package com.englishproject.englishteacherapi.service;
+
+import jakarta.servlet.http.HttpServletRequest;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.http.HttpHeaders;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Sidecars .gz precomprimidos para archivos subidos comprimibles (.doc, .pdf).
+ * Se generan una sola vez después de la subida y downloadActivityFile los sirve con
+ * Content-Encoding: gzip cuando el cliente lo acepta, sin comprimir en cada request.
+ */
+@Service
+public class CompressedSidecarService {
+
+    private static final Logger logger = LoggerFactory.getLogger(CompressedSidecarService.class);
+
+    public static final String SIDECAR_SUFFIX = ".gz";
+
+    // docx, imágenes, mp3 y mp4 ya vienen comprimidos
+    private static final Set<String> COMPRESSIBLE_CONTENT_TYPES = Set.of("application/msword", "application/pdf");
+
+    // Solo se conserva el sidecar si ahorra al menos un 10%
+    private static final double MAX_COMPRESSION_RATIO = 0.9;
+
+    @Autowired
+    @Qualifier("uploadProcessingExecutor")
+    private ExecutorService executor;
+
+    public boolean isCompressible(String contentType) {
+        return contentType != null && COMPRESSIBLE_CONTENT_TYPES.contains(contentType);
+    }
+
+    /**
+     * Encola la generación del sidecar .gz para el archivo subido
+     */
+    public void scheduleSidecar(Path original, String contentType) {
+        if (!isCompressible(contentType)) {
+            return;
+        }
+        try {
+            executor.execute(() -> createSidecar(original));
+        } catch (RejectedExecutionException e) {
+            logger.warn("Cola de post-procesamiento llena, se omite el sidecar: {}", original.getFileName());
+        }
+    }
+
+    /**
+     * Devuelve el sidecar si existe y el cliente acepta gzip, o null
+     */
+    public Path resolveFor(HttpServletRequest request, Path original) {
+        if (!acceptsGzip(request.getHeader(HttpHeaders.ACCEPT_ENCODING))) {
+            return null;
+        }
+        Path sidecar = sidecarPath(original);
+        return Files.isRegularFile(sidecar) ? sidecar : null;
+    }
+
+    public void deleteSidecar(Path original) {
+        try {
+            Files.deleteIfExists(sidecarPath(original));
+        } catch (IOException e) {
+            logger.warn("No se pudo eliminar el sidecar de {}", original.getFileName(), e);
+        }
+    }
+
+    private void createSidecar(Path original) {
+        Path sidecar = sidecarPath(original);
+        if (Files.exists(sidecar)) {
+            return;
+        }
+        try {
+            Path temp = Files.createTempFile(original.getParent(), "sidecar-", ".tmp");
+            try {
+                try (OutputStream out = new GZIPOutputStream(Files.newOutputStream(temp))) {
+                    Files.copy(original, out);
+                }
+                long originalSize = Files.size(original);
+                long compressedSize = Files.size(temp);
+                if (compressedSize < originalSize * MAX_COMPRESSION_RATIO) {
+                    Files.move(temp, sidecar, StandardCopyOption.ATOMIC_MOVE);
+                    logger.info("Sidecar gzip generado para {} ({} -> {} bytes)",
+                            original.getFileName(), originalSize, compressedSize);
+                } else {
+                    logger.debug("Sidecar descartado para {}: poca ganancia", original.getFileName());
+                }
+            } finally {
+                Files.deleteIfExists(temp);
+            }
+        } catch (IOException e) {
+            logger.error("Error generando sidecar gzip de {}", original.getFileName(), e);
+        }
+    }
+
+    private boolean acceptsGzip(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+        for (String coding : acceptEncoding.split(",")) {
+            String[] parts = coding.trim().split(";");
+            if (!parts[0].trim().equalsIgnoreCase("gzip")) {
+                continue;
+            }
+            // gzip;q=0 significa explícitamente "no"
+            for (int i = 1; i < parts.length; i++) {
+                String param = parts[i].trim();
+                if (param.startsWith("q=")) {
+                    try {
+                        return Double.parseDouble(param.substring(2)) > 0;
+                    } catch (NumberFormatException e) {
+                        return false;
+                    }
+                }
+            }
+            return true;
+        }
+        return false;
+    }
+
+    private Path sidecarPath(Path original) {
+        return original.resolveSibling(original.getFileName().toString() + SIDECAR_SUFFIX);
+    }
+}
@@ -0,0 +1,182 @@
+package com.englishproject.englishteacherapi.service;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Pattern;
+
+/**
+ * Política de cache HTTP para archivos subidos, compartida por /api/files/activities/{fileName}
+ * y por el handler estático /uploads/**.
+ * Los archivos con nombre UUID o SHA-256 nunca cambian: se sirven como immutable con un año de
+ * max-age y sus validadores (ETag, Last-Modified) se calculan una sola vez.
+ */
+@Component
+public class FileCachePolicy {
+
+    // Admiten el sufijo de las miniaturas (".w320") y de los sidecars precomprimidos (".gz")
+    private static final Pattern UUID_FILENAME_PATTERN =
+            Pattern.compile("^[0-9a-f]{8}-[0-9a-f]{4}-[0-9a-f]{4}-[0-9a-f]{4}-[0-9a-f]{12}(\\.w\\d+)?\\.[A-Za-z0-9]+(\\.gz)?$");
+    private static final Pattern CONTENT_HASH_FILENAME_PATTERN =
+            Pattern.compile("^([0-9a-f]{64})(\\.w\\d+)?\\.[a-z0-9]+(\\.gz)?$");
+    private static final CacheControl IMMUTABLE_CACHE_CONTROL =
+            CacheControl.maxAge(Duration.ofDays(365)).cachePublic().immutable();
+    private static final CacheControl REVALIDATE_CACHE_CONTROL = CacheControl.noCache();
+    private static final int MAX_MEMOIZED_VALIDATORS = 10_000;
+
+    private final Map<Path, Validators> validatorsCache = new ConcurrentHashMap<>();
+
+    /**
+     * ETag y fecha de modificación de un archivo
+     */
+    public record Validators(String etag, long lastModified) {
+    }
+
+    /**
+     * Indica si el nombre corresponde a un archivo que nunca cambia (UUID o hash de contenido)
+     */
+    public boolean isImmutable(String fileName) {
+        return UUID_FILENAME_PATTERN.matcher(fileName).matches()
+                || CONTENT_HASH_FILENAME_PATTERN.matcher(fileName).matches();
+    }
+
+    /**
+     * Validadores del archivo; memoizados para archivos inmutables
+     */
+    public Validators validatorsFor(Path file) throws IOException {
+        String fileName = file.getFileName().toString();
+        if (!isImmutable(fileName)) {
+            return computeValidators(file, fileName);
+        }
+        Validators cached = validatorsCache.get(file);
+        if (cached != null) {
+            return cached;
+        }
+        Validators validators = computeValidators(file, fileName);
+        if (validatorsCache.size() >= MAX_MEMOIZED_VALIDATORS) {
+            validatorsCache.clear();
+        }
+        validatorsCache.put(file, validators);
+        return validators;
+    }
+
+    /**
+     * Olvida los validadores de un archivo eliminado
+     */
+    public void evict(Path file) {
+        validatorsCache.remove(file);
+    }
+
+    /**
+     * Escribe Cache-Control, ETag y Last-Modified y evalúa If-None-Match / If-Modified-Since.
+     * @return true si se respondió 304 Not Modified y no hay que enviar el cuerpo
+     */
+    public boolean applyAndCheckNotModified(HttpServletRequest request, HttpServletResponse response,
+                                            Path file) throws IOException {
+        return applyAndCheckNotModified(request, response, file, true);
+    }
+
+    /**
+     * Igual que {@link #applyAndCheckNotModified(HttpServletRequest, HttpServletResponse, Path)} pero
+     * permite forzar revalidación cuando la URL puede servir otro archivo más adelante
+     * (por ejemplo una miniatura que todavía no se generó)
+     */
+    public boolean applyAndCheckNotModified(HttpServletRequest request, HttpServletResponse response,
+                                            Path file, boolean allowImmutable) throws IOException {
+        Validators validators = validatorsFor(file);
+        CacheControl cacheControl = allowImmutable && isImmutable(file.getFileName().toString())
+                ? IMMUTABLE_CACHE_CONTROL : REVALIDATE_CACHE_CONTROL;
+
+        response.setHeader(HttpHeaders.CACHE_CONTROL, cacheControl.getHeaderValue());
+        response.setHeader(HttpHeaders.ETAG, validators.etag());
+        response.setDateHeader(HttpHeaders.LAST_MODIFIED, validators.lastModified());
+
+        if (!isGetOrHead(request)) {
+            return false;
+        }
+
+        // If-None-Match tiene prioridad sobre If-Modified-Since (RFC 9110)
+        String ifNoneMatch = request.getHeader(HttpHeaders.IF_NONE_MATCH);
+        boolean notModified;
+        if (ifNoneMatch != null) {
+            notModified = etagMatches(ifNoneMatch, validators.etag());
+        } else {
+            long ifModifiedSince = parseDateHeader(request, HttpHeaders.IF_MODIFIED_SINCE);
+            notModified = ifModifiedSince >= 0 && validators.lastModified() / 1000 <= ifModifiedSince / 1000;
+        }
+
+        if (notModified) {
+            response.setStatus(HttpStatus.NOT_MODIFIED.value());
+        }
+        return notModified;
+    }
+
+    /**
+     * Evalúa If-Range: true si se puede responder el rango pedido
+     */
+    public boolean isRangeAllowed(HttpServletRequest request, Validators validators) {
+        String ifRange = request.getHeader(HttpHeaders.IF_RANGE);
+        if (ifRange == null) {
+            return true;
+        }
+        if (ifRange.startsWith("\"") || ifRange.startsWith("W/")) {
+            // If-Range exige comparación fuerte
+            return ifRange.trim().equals(validators.etag());
+        }
+        long date = parseDateHeader(request, HttpHeaders.IF_RANGE);
+        return date >= 0 && validators.lastModified() / 1000 <= date / 1000;
+    }
+
+    private Validators computeValidators(Path file, String fileName) throws IOException {
+        BasicFileAttributes attributes = Files.readAttributes(file, BasicFileAttributes.class);
+        long lastModified = attributes.lastModifiedTime().toMillis();
+
+        // Para archivos direccionados por contenido el propio hash es el mejor ETag
+        var hashMatcher = CONTENT_HASH_FILENAME_PATTERN.matcher(fileName);
+        String etag = hashMatcher.matches() && hashMatcher.group(2) == null && hashMatcher.group(3) == null
+                ? "\"" + hashMatcher.group(1) + "\""
+                : "\"" + Long.toHexString(attributes.size()) + "-" + Long.toHexString(lastModified) + "\"";
+        return new Validators(etag, lastModified);
+    }
+
+    private boolean etagMatches(String ifNoneMatch, String etag) {
+        for (String candidate : ifNoneMatch.split(",")) {
+            String trimmed = candidate.trim();
+            if (trimmed.equals("*")) {
+                return true;
+            }
+            // Comparación débil: W/"x" equivale a "x"
+            if (trimmed.startsWith("W/")) {
+                trimmed = trimmed.substring(2);
+            }
+            if (trimmed.equals(etag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private long parseDateHeader(HttpServletRequest request, String headerName) {
+        try {
+            return request.getDateHeader(headerName);
+        } catch (IllegalArgumentException e) {
+            return -1;
+        }
+    }
+
+    private boolean isGetOrHead(HttpServletRequest request) {
+        String method = request.getMethod();
+        return "GET".equals(method) || "HEAD".equals(method);
+    }
+}
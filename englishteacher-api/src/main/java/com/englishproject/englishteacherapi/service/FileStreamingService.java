@@ -0,0 +1,223 @@
+package com.englishproject.englishteacherapi.service;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpRange;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.util.MimeTypeUtils;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Envío de archivos con soporte de HTTP Range (206 Partial Content, multi-rango).
+ * Solo el archivo completo o un único rango pueden ir por sendfile: si el conector de Tomcat lo
+ * soporta, los bytes van del page cache al socket sin pasar por el heap (zero-copy).
+ * En el resto de los casos (sin sendfile, o multi-rango) FileChannel.transferTo escribe sobre el
+ * ServletOutputStream envuelto con Channels.newChannel, que copia a través de un buffer del heap;
+ * el archivo nunca se carga entero en memoria, pero no es zero-copy.
+ */
+@Service
+public class FileStreamingService {
+
+    // Atributos de request con los que Tomcat delega el envío en sendfile
+    private static final String SENDFILE_SUPPORT_ATTR = "org.apache.tomcat.sendfile.support";
+    private static final String SENDFILE_FILENAME_ATTR = "org.apache.tomcat.sendfile.filename";
+    private static final String SENDFILE_START_ATTR = "org.apache.tomcat.sendfile.start";
+    private static final String SENDFILE_END_ATTR = "org.apache.tomcat.sendfile.end";
+
+    private static final String DEFAULT_CONTENT_TYPE = "application/octet-stream";
+    private static final int MAX_CACHED_CONTENT_TYPES = 10_000;
+
+    // Los archivos subidos no cambian de nombre ni de contenido: el tipo se detecta una sola vez
+    private final Map<String, String> contentTypeCache = new ConcurrentHashMap<>();
+
+    @Autowired
+    private MetricsRegistry metricsRegistry;
+
+    private LongAdder bytesStreamed;
+    private LatencyHistogram responseSizes;
+
+    @PostConstruct
+    public void initMetrics() {
+        bytesStreamed = metricsRegistry.counter("file_bytes_streamed_total",
+                "Bytes de archivos enviados por los endpoints de descarga");
+        responseSizes = metricsRegistry.histogram("file_response", "Tamaño de cada respuesta de archivo",
+                MetricsRegistry.Unit.BYTES, "endpoint", "files");
+    }
+
+    /**
+     * Devuelve el tipo de contenido del archivo, detectándolo solo la primera vez
+     */
+    public String contentTypeOf(Path file) throws IOException {
+        String fileName = file.getFileName().toString();
+        String cached = contentTypeCache.get(fileName);
+        if (cached != null) {
+            return cached;
+        }
+        String contentType = Files.probeContentType(file);
+        if (contentType == null) {
+            contentType = DEFAULT_CONTENT_TYPE;
+        }
+        if (contentTypeCache.size() >= MAX_CACHED_CONTENT_TYPES) {
+            contentTypeCache.clear();
+        }
+        contentTypeCache.put(fileName, contentType);
+        return contentType;
+    }
+
+    /**
+     * Olvida el tipo de contenido cacheado (por ejemplo al eliminar el archivo)
+     */
+    public void evict(String fileName) {
+        contentTypeCache.remove(fileName);
+    }
+
+    /**
+     * Escribe el archivo completo o los rangos pedidos en el header Range.
+     * @param rangeAllowed false si If-Range no coincide y hay que ignorar Range
+     */
+    public void send(HttpServletRequest request, HttpServletResponse response, Path file, String contentType,
+                     boolean rangeAllowed) throws IOException {
+        long length = Files.size(file);
+        boolean headRequest = "HEAD".equals(request.getMethod());
+        response.setHeader(HttpHeaders.ACCEPT_RANGES, "bytes");
+
+        String rangeHeader = rangeAllowed ? request.getHeader(HttpHeaders.RANGE) : null;
+        if (rangeHeader == null || length == 0) {
+            sendFull(request, response, file, contentType, length, headRequest);
+            return;
+        }
+
+        List<HttpRange> ranges;
+        try {
+            // Lanza IllegalArgumentException si el header es inválido o trae más de 100 rangos
+            ranges = HttpRange.parseRanges(rangeHeader);
+        } catch (IllegalArgumentException e) {
+            sendNotSatisfiable(response, length);
+            return;
+        }
+        long requestedBytes = 0;
+        for (HttpRange range : ranges) {
+            // HttpRange no valida contra el tamaño: un inicio fuera del archivo no es satisfacible
+            long start = range.getRangeStart(length);
+            long end = range.getRangeEnd(length);
+            if (start >= length || end < start) {
+                sendNotSatisfiable(response, length);
+                return;
+            }
+            requestedBytes += end - start + 1;
+        }
+        if (requestedBytes > length) {
+            // Rangos superpuestos (p. ej. "bytes=0-,0-,...") multiplicarían el tamaño del archivo:
+            // se ignora Range y se envía el archivo completo una sola vez (RFC 9110, 14.2)
+            sendFull(request, response, file, contentType, length, headRequest);
+            return;
+        }
+
+        response.setStatus(HttpStatus.PARTIAL_CONTENT.value());
+        if (ranges.size() == 1) {
+            long start = ranges.get(0).getRangeStart(length);
+            long end = ranges.get(0).getRangeEnd(length);
+            response.setContentType(contentType);
+            response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes " + start + "-" + end + "/" + length);
+            response.setContentLengthLong(end - start + 1);
+            if (!headRequest) {
+                sendRegion(request, response, file, start, end - start + 1);
+            }
+            return;
+        }
+
+        sendMultipleRanges(response, file, contentType, ranges, length, headRequest);
+    }
+
+    private void sendNotSatisfiable(HttpServletResponse response, long length) {
+        response.setStatus(HttpStatus.REQUESTED_RANGE_NOT_SATISFIABLE.value());
+        response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes */" + length);
+    }
+
+    private void sendFull(HttpServletRequest request, HttpServletResponse response, Path file, String contentType,
+                          long length, boolean headRequest) throws IOException {
+        response.setStatus(HttpStatus.OK.value());
+        response.setContentType(contentType);
+        response.setContentLengthLong(length);
+        if (!headRequest) {
+            sendRegion(request, response, file, 0, length);
+        }
+    }
+
+    private void sendMultipleRanges(HttpServletResponse response, Path file, String contentType,
+                                    List<HttpRange> ranges, long length, boolean headRequest) throws IOException {
+        String boundary = MimeTypeUtils.generateMultipartBoundaryString();
+        response.setContentType("multipart/byteranges; boundary=" + boundary);
+        if (headRequest) {
+            return;
+        }
+
+        // Las partes se intercalan con sus encabezados: no hay sendfile, se copia por el heap
+        OutputStream out = response.getOutputStream();
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            WritableByteChannel target = Channels.newChannel(out);
+            for (HttpRange range : ranges) {
+                long start = range.getRangeStart(length);
+                long end = range.getRangeEnd(length);
+                String partHeader = "\r\n--" + boundary + "\r\n" +
+                        HttpHeaders.CONTENT_TYPE + ": " + contentType + "\r\n" +
+                        HttpHeaders.CONTENT_RANGE + ": bytes " + start + "-" + end + "/" + length + "\r\n\r\n";
+                out.write(partHeader.getBytes(StandardCharsets.US_ASCII));
+                transfer(channel, start, end - start + 1, target);
+                bytesStreamed.add(end - start + 1);
+            }
+        }
+        out.write(("\r\n--" + boundary + "--\r\n").getBytes(StandardCharsets.US_ASCII));
+        out.flush();
+    }
+
+    private void sendRegion(HttpServletRequest request, HttpServletResponse response, Path file,
+                            long start, long count) throws IOException {
+        bytesStreamed.add(count);
+        responseSizes.record(count);
+        if (Boolean.TRUE.equals(request.getAttribute(SENDFILE_SUPPORT_ATTR))) {
+            // Tomcat envía la región con sendfile al terminar el request (zero-copy)
+            request.setAttribute(SENDFILE_FILENAME_ATTR, file.toAbsolutePath().toString());
+            request.setAttribute(SENDFILE_START_ATTR, start);
+            request.setAttribute(SENDFILE_END_ATTR, start + count);
+            return;
+        }
+
+        // Sin sendfile: transferTo sobre un canal que envuelve al stream copia a través de un buffer del heap
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            OutputStream out = response.getOutputStream();
+            transfer(channel, start, count, Channels.newChannel(out));
+            out.flush();
+        }
+    }
+
+    private void transfer(FileChannel channel, long start, long count, WritableByteChannel target) throws IOException {
+        long position = start;
+        long remaining = count;
+        while (remaining > 0) {
+            long transferred = channel.transferTo(position, remaining, target);
+            if (transferred <= 0) {
+                break;
+            }
+            position += transferred;
+            remaining -= transferred;
+        }
+    }
+}
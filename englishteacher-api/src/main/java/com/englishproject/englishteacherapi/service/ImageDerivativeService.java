@@ -0,0 +1,219 @@
+package com.englishproject.englishteacherapi.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.stereotype.Service;
+
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReadParam;
+import javax.imageio.ImageReader;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageInputStream;
+import javax.imageio.stream.ImageOutputStream;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Genera versiones reducidas (miniaturas de ancho fijo) de las imágenes subidas.
+ * Corre en el pool acotado de post-procesamiento de subidas usando solo ImageIO del JDK y guarda
+ * los derivados junto al original: {@code <nombre>.w320.jpg}.
+ */
+@Service
+public class ImageDerivativeService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ImageDerivativeService.class);
+
+    // Anchos generados, de menor a mayor
+    public static final List<Integer> DERIVATIVE_WIDTHS = List.of(160, 320, 640);
+
+    private static final Set<String> SUPPORTED_CONTENT_TYPES = Set.of("image/jpeg", "image/jpg", "image/png");
+    private static final float JPEG_QUALITY = 0.8f;
+
+    // Más píxeles que esto (p. ej. ~7000x7000) no se decodifica: una imagen chica en bytes
+    // puede declarar dimensiones enormes y el decoder recorre todas las filas aunque submuestree
+    private static final long MAX_SOURCE_PIXELS = 50_000_000L;
+    // Alto máximo del mayor derivado: imágenes muy altas también se submuestrean por alto
+    private static final int MAX_DERIVATIVE_HEIGHT = 4 * DERIVATIVE_WIDTHS.get(DERIVATIVE_WIDTHS.size() - 1);
+
+    @Autowired
+    @Qualifier("uploadProcessingExecutor")
+    private ExecutorService executor;
+
+    /**
+     * Encola la generación de derivados; si la cola está llena se descarta
+     * (el original se sigue sirviendo normalmente)
+     */
+    public void scheduleDerivatives(Path original, String contentType) {
+        if (contentType == null || !SUPPORTED_CONTENT_TYPES.contains(contentType)) {
+            return;
+        }
+        try {
+            executor.execute(() -> generateDerivatives(original));
+        } catch (RejectedExecutionException e) {
+            logger.warn("Cola de derivados llena, se omite: {}", original.getFileName());
+        }
+    }
+
+    /**
+     * Devuelve el derivado más chico cuyo ancho cubre el pedido, o el original si no existe
+     */
+    public Path resolve(Path original, int requestedWidth) {
+        for (int width : DERIVATIVE_WIDTHS) {
+            if (width >= requestedWidth) {
+                Path derivative = derivativePath(original, width);
+                return Files.isRegularFile(derivative) ? derivative : original;
+            }
+        }
+        return original;
+    }
+
+    /**
+     * Elimina los derivados de un original borrado
+     */
+    public void deleteDerivatives(Path original) {
+        for (int width : DERIVATIVE_WIDTHS) {
+            try {
+                Files.deleteIfExists(derivativePath(original, width));
+            } catch (IOException e) {
+                logger.warn("No se pudo eliminar el derivado {}px de {}", width, original.getFileName(), e);
+            }
+        }
+    }
+
+    private void generateDerivatives(Path original) {
+        long start = System.nanoTime();
+        try {
+            BufferedImage source = readSubsampled(original, DERIVATIVE_WIDTHS.get(DERIVATIVE_WIDTHS.size() - 1),
+                    MAX_DERIVATIVE_HEIGHT);
+            if (source == null) {
+                return;
+            }
+
+            boolean png = isPng(original);
+            for (int width : DERIVATIVE_WIDTHS) {
+                // Nunca se agranda: si el original es más chico se sirve el original
+                if (width >= source.getWidth()) {
+                    break;
+                }
+                Path target = derivativePath(original, width);
+                if (Files.exists(target)) {
+                    continue;
+                }
+                BufferedImage scaled = scale(source, width, png);
+                writeAtomically(scaled, target, png);
+            }
+            logger.info("Derivados generados para {} en {} ms", original.getFileName(),
+                    TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+        } catch (IOException | RuntimeException e) {
+            logger.error("Error generando derivados de {}", original.getFileName(), e);
+        }
+    }
+
+    /**
+     * Decodifica la imagen con submuestreo para no reservar memoria de más:
+     * el resultado cubre el mayor derivado sin superar el alto máximo.
+     * Las dimensiones se leen del encabezado antes de decodificar.
+     * @return null si ImageIO no soporta el formato o la imagen supera MAX_SOURCE_PIXELS
+     */
+    private BufferedImage readSubsampled(Path original, int maxTargetWidth, int maxTargetHeight) throws IOException {
+        try (ImageInputStream input = ImageIO.createImageInputStream(original.toFile())) {
+            Iterator<ImageReader> readers = input != null ? ImageIO.getImageReaders(input) : null;
+            if (readers == null || !readers.hasNext()) {
+                logger.warn("Formato de imagen no soportado por ImageIO: {}", original.getFileName());
+                return null;
+            }
+            ImageReader reader = readers.next();
+            try {
+                reader.setInput(input, true, true);
+                int sourceWidth = reader.getWidth(0);
+                int sourceHeight = reader.getHeight(0);
+                if ((long) sourceWidth * sourceHeight > MAX_SOURCE_PIXELS) {
+                    logger.warn("Imagen de {}x{} supera el máximo de píxeles, se omiten los derivados: {}",
+                            sourceWidth, sourceHeight, original.getFileName());
+                    return null;
+                }
+                int subsampling = Math.max(1, Math.max(sourceWidth / maxTargetWidth, sourceHeight / maxTargetHeight));
+                ImageReadParam param = reader.getDefaultReadParam();
+                param.setSourceSubsampling(subsampling, subsampling, 0, 0);
+                return reader.read(0, param);
+            } finally {
+                reader.dispose();
+            }
+        }
+    }
+
+    private BufferedImage scale(BufferedImage source, int width, boolean keepAlpha) {
+        int height = Math.max(1, (int) Math.round((double) source.getHeight() * width / source.getWidth()));
+        BufferedImage scaled = new BufferedImage(width, height,
+                keepAlpha ? BufferedImage.TYPE_INT_ARGB : BufferedImage.TYPE_INT_RGB);
+        Graphics2D graphics = scaled.createGraphics();
+        try {
+            graphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            graphics.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+            if (!keepAlpha) {
+                // JPEG no tiene transparencia: fondo blanco
+                graphics.setColor(Color.WHITE);
+                graphics.fillRect(0, 0, width, height);
+            }
+            graphics.drawImage(source, 0, 0, width, height, null);
+        } finally {
+            graphics.dispose();
+        }
+        return scaled;
+    }
+
+    private void writeAtomically(BufferedImage image, Path target, boolean png) throws IOException {
+        Path temp = Files.createTempFile(target.getParent(), "derivative-", ".tmp");
+        try {
+            if (png) {
+                ImageIO.write(image, "png", temp.toFile());
+            } else {
+                writeJpeg(image, temp);
+            }
+            Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    private void writeJpeg(BufferedImage image, Path target) throws IOException {
+        ImageWriter writer = ImageIO.getImageWritersByFormatName("jpeg").next();
+        try (ImageOutputStream output = ImageIO.createImageOutputStream(target.toFile())) {
+            ImageWriteParam param = writer.getDefaultWriteParam();
+            param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+            param.setCompressionQuality(JPEG_QUALITY);
+            writer.setOutput(output);
+            writer.write(null, new IIOImage(image, null, null), param);
+        } finally {
+            writer.dispose();
+        }
+    }
+
+    private Path derivativePath(Path original, int width) {
+        String fileName = original.getFileName().toString();
+        int dot = fileName.lastIndexOf('.');
+        String baseName = dot > 0 ? fileName.substring(0, dot) : fileName;
+        String extension = isPng(original) ? "png" : "jpg";
+        return original.resolveSibling(baseName + ".w" + width + "." + extension);
+    }
+
+    private boolean isPng(Path file) {
+        return file.getFileName().toString().toLowerCase().endsWith(".png");
+    }
+}
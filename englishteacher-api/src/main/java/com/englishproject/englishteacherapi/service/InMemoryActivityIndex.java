@@ -0,0 +1,477 @@
+package com.englishproject.englishteacherapi.service;
+
+import com.englishproject.englishteacherapi.dto.ActivityDTO;
+import com.englishproject.englishteacherapi.dto.ActivitySearchHit;
+import com.englishproject.englishteacherapi.dto.SearchCursor;
+import com.englishproject.englishteacherapi.dto.SearchPage;
+import com.englishproject.englishteacherapi.model.Activity;
+import com.englishproject.englishteacherapi.repository.ActivityRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Function;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+/**
+ * Índice invertido en memoria sobre título, descripción y contenido de las actividades activas.
+ * Alternativa a la búsqueda en PostgreSQL (app.search.engine=memory) para despliegues sin
+ * la columna tsvector. Se construye al arrancar y se mantiene con cada escritura de ActivityService.
+ *
+ * Los postings son arreglos int[] (documento, frecuencia) sin colecciones boxed; los documentos
+ * se numeran en orden de alta, así cada lista queda ordenada al agregar al final. Las bajas solo
+ * marcan el documento como eliminado y el índice se compacta cuando los eliminados superan a los vivos.
+ * Ranking BM25 con frecuencias ponderadas por campo (título x3, descripción x2, contenido x1).
+ */
+@Service
+@ConditionalOnProperty(name = "app.search.engine", havingValue = "memory")
+public class InMemoryActivityIndex {
+
+    private static final Logger logger = LoggerFactory.getLogger(InMemoryActivityIndex.class);
+
+    private static final float K1 = 1.2f;
+    private static final float B = 0.75f;
+    private static final int TITLE_WEIGHT = 3;
+    private static final int DESCRIPTION_WEIGHT = 2;
+    private static final int CONTENT_WEIGHT = 1;
+    private static final int MAX_QUERY_TERMS = 10;
+    private static final int MAX_PREFIX_EXPANSIONS = 100;
+    private static final int MIN_COMPACTION_DEAD_DOCS = 1024;
+    private static final Pattern DIACRITICS = Pattern.compile("\\p{M}+");
+    private static final Pattern NON_WORD = Pattern.compile("[^\\p{L}\\p{N}]+");
+
+    @Autowired
+    private ActivityRepository activityRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    // Diccionario ordenado para resolver consultas por prefijo con subMap
+    private final TreeMap<String, Postings> terms = new TreeMap<>();
+    private final Map<Long, Integer> docByActivityId = new HashMap<>();
+
+    // Atributos por número de documento
+    private long[] activityIds = new long[1024];
+    private long[] levelIds = new long[1024];
+    private byte[] types = new byte[1024];
+    private int[] lengths = new int[1024];
+    private final BitSet live = new BitSet();
+    private int docCount;
+    private int liveCount;
+    private long liveLengthSum;
+
+    /**
+     * Lista de postings de un término: documentos ascendentes y su frecuencia ponderada
+     */
+    private static final class Postings {
+        int[] docs = new int[4];
+        int[] freqs = new int[4];
+        int size;
+
+        void add(int doc, int freq) {
+            if (size == docs.length) {
+                docs = Arrays.copyOf(docs, size * 2);
+                freqs = Arrays.copyOf(freqs, size * 2);
+            }
+            docs[size] = doc;
+            freqs[size] = freq;
+            size++;
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void build() {
+        long start = System.nanoTime();
+        // Se recorre en streaming y se desacopla cada entidad para no retener el catálogo completo
+        transactionTemplate.executeWithoutResult(status -> {
+            try (var activities = activityRepository.streamAll()) {
+                activities.forEach(activity -> {
+                    if (Boolean.TRUE.equals(activity.getIsActive())) {
+                        index(activity.getId(), activity.getLevel().getId(), activity.getType(),
+                                activity.getTitle(), activity.getDescription(), activity.getContent());
+                    }
+                    entityManager.detach(activity);
+                });
+            }
+        });
+        logger.info("Índice de búsqueda construido en {} ms: {}", (System.nanoTime() - start) / 1_000_000, footprint());
+    }
+
+    /**
+     * Refleja el estado de una actividad luego del commit: se indexa si está activa y se quita si no
+     */
+    public void activityChanged(ActivityDTO activity) {
+        AfterCommit.run(() -> {
+            if (Boolean.TRUE.equals(activity.getIsActive())) {
+                index(activity.getId(), activity.getLevelId(), activity.getType(),
+                        activity.getTitle(), activity.getDescription(), activity.getContent());
+            } else {
+                remove(activity.getId());
+            }
+        });
+    }
+
+    public void activityDeleted(Long activityId) {
+        AfterCommit.run(() -> remove(activityId));
+    }
+
+    /**
+     * Se eliminó un nivel: sus actividades se borran en cascada sin pasar por ActivityService
+     */
+    public void levelDeleted(Long levelId) {
+        AfterCommit.run(() -> removeLevel(levelId));
+    }
+
+    /**
+     * Busca actividades que contengan todos los términos de la consulta.
+     * Un término terminado en * se trata como prefijo ("gram*" encuentra "grammar").
+     */
+    public SearchPage search(String query, Long levelId, Activity.ActivityType type,
+                             SearchCursor after, int limit) {
+        List<String> queryTerms = new ArrayList<>();
+        List<Boolean> prefixes = new ArrayList<>();
+        for (String raw : query.trim().split("\\s+")) {
+            boolean prefix = raw.endsWith("*");
+            List<String> tokens = tokenize(raw);
+            for (int i = 0; i < tokens.size() && queryTerms.size() < MAX_QUERY_TERMS; i++) {
+                queryTerms.add(tokens.get(i));
+                // El comodín aplica solo al último fragmento de la palabra
+                prefixes.add(prefix && i == tokens.size() - 1);
+            }
+        }
+        if (queryTerms.isEmpty()) {
+            return new SearchPage(List.of(), null);
+        }
+
+        long[] rankedIds;
+        float[] rankedScores;
+        lock.readLock().lock();
+        try {
+            float[] scores = new float[docCount];
+            int[] lastMatchedTerm = new int[docCount];
+            float avgLength = liveCount == 0 ? 1f : (float) liveLengthSum / liveCount;
+            for (int t = 0; t < queryTerms.size(); t++) {
+                Map<String, Postings> expansions = prefixes.get(t)
+                        ? prefixRange(queryTerms.get(t))
+                        : singleTerm(queryTerms.get(t));
+                for (Postings postings : expansions.values()) {
+                    accumulate(postings, t + 1, scores, lastMatchedTerm, avgLength);
+                }
+            }
+
+            int requiredTerms = queryTerms.size();
+            int[] candidates = new int[16];
+            int candidateCount = 0;
+            for (int doc = live.nextSetBit(0); doc >= 0; doc = live.nextSetBit(doc + 1)) {
+                if (lastMatchedTerm[doc] != requiredTerms) {
+                    continue;
+                }
+                if (levelId != null && levelIds[doc] != levelId) {
+                    continue;
+                }
+                if (type != null && types[doc] != type.ordinal()) {
+                    continue;
+                }
+                if (!after.isFirst() && !(scores[doc] < after.score()
+                        || (scores[doc] == after.score() && activityIds[doc] < after.id()))) {
+                    continue;
+                }
+                if (candidateCount == candidates.length) {
+                    candidates = Arrays.copyOf(candidates, candidateCount * 2);
+                }
+                candidates[candidateCount++] = doc;
+            }
+
+            int[] top = Arrays.stream(candidates, 0, candidateCount)
+                    .boxed()
+                    .sorted(Comparator.<Integer>comparingDouble(doc -> -scores[doc])
+                            .thenComparingLong(doc -> -activityIds[doc]))
+                    .limit(limit)
+                    .mapToInt(Integer::intValue)
+                    .toArray();
+            rankedIds = new long[top.length];
+            rankedScores = new float[top.length];
+            for (int i = 0; i < top.length; i++) {
+                rankedIds[i] = activityIds[top[i]];
+                rankedScores[i] = scores[top[i]];
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        // El cursor se toma del ranking antes de cargar las actividades
+        int last = rankedIds.length - 1;
+        SearchCursor next = rankedIds.length == limit ? new SearchCursor(rankedScores[last], rankedIds[last]) : null;
+        return new SearchPage(loadHits(rankedIds, rankedScores), next);
+    }
+
+    /**
+     * Tamaño aproximado del índice en memoria
+     */
+    public Map<String, Object> footprint() {
+        lock.readLock().lock();
+        try {
+            long postingEntries = 0;
+            long postingBytes = 0;
+            long termBytes = 0;
+            for (Map.Entry<String, Postings> entry : terms.entrySet()) {
+                Postings postings = entry.getValue();
+                postingEntries += postings.size;
+                // Dos int[] con su cabecera más el objeto Postings
+                postingBytes += 2L * (16 + 4L * postings.docs.length) + 24;
+                // String + byte[] (compact strings) + entrada del TreeMap
+                termBytes += 24 + 16 + entry.getKey().length() + 40;
+            }
+            long docBytes = (long) activityIds.length * (8 + 8 + 1 + 4) + live.size() / 8
+                    + docByActivityId.size() * 64L;
+
+            Map<String, Object> footprint = new LinkedHashMap<>();
+            footprint.put("documents", docCount);
+            footprint.put("liveDocuments", liveCount);
+            footprint.put("terms", terms.size());
+            footprint.put("postings", postingEntries);
+            footprint.put("postingBytes", postingBytes);
+            footprint.put("dictionaryBytes", termBytes);
+            footprint.put("documentBytes", docBytes);
+            footprint.put("estimatedTotalBytes", postingBytes + termBytes + docBytes);
+            return footprint;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void index(Long activityId, Long levelId, Activity.ActivityType type,
+                       String title, String description, String content) {
+        // Frecuencias ponderadas por campo, calculadas fuera del lock
+        Map<String, int[]> frequencies = new HashMap<>();
+        int length = countTerms(title, TITLE_WEIGHT, frequencies)
+                + countTerms(description, DESCRIPTION_WEIGHT, frequencies)
+                + countTerms(content, CONTENT_WEIGHT, frequencies);
+
+        lock.writeLock().lock();
+        try {
+            removeLocked(activityId);
+            if (docCount == activityIds.length) {
+                int capacity = docCount * 2;
+                activityIds = Arrays.copyOf(activityIds, capacity);
+                levelIds = Arrays.copyOf(levelIds, capacity);
+                types = Arrays.copyOf(types, capacity);
+                lengths = Arrays.copyOf(lengths, capacity);
+            }
+            int doc = docCount++;
+            activityIds[doc] = activityId;
+            levelIds[doc] = levelId;
+            types[doc] = (byte) type.ordinal();
+            lengths[doc] = length;
+            live.set(doc);
+            liveCount++;
+            liveLengthSum += length;
+            docByActivityId.put(activityId, doc);
+            for (Map.Entry<String, int[]> entry : frequencies.entrySet()) {
+                terms.computeIfAbsent(entry.getKey(), term -> new Postings()).add(doc, entry.getValue()[0]);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void remove(Long activityId) {
+        lock.writeLock().lock();
+        try {
+            removeLocked(activityId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void removeLevel(Long levelId) {
+        lock.writeLock().lock();
+        try {
+            // Primero se juntan los ids: removeLocked puede compactar y renumerar los documentos
+            List<Long> removed = new ArrayList<>();
+            for (int doc = live.nextSetBit(0); doc >= 0; doc = live.nextSetBit(doc + 1)) {
+                if (levelIds[doc] == levelId) {
+                    removed.add(activityIds[doc]);
+                }
+            }
+            removed.forEach(this::removeLocked);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void removeLocked(Long activityId) {
+        Integer doc = docByActivityId.remove(activityId);
+        if (doc == null) {
+            return;
+        }
+        live.clear(doc);
+        liveCount--;
+        liveLengthSum -= lengths[doc];
+        int deadDocs = docCount - liveCount;
+        if (deadDocs > MIN_COMPACTION_DEAD_DOCS && deadDocs > liveCount) {
+            compact();
+        }
+    }
+
+    /**
+     * Renumera los documentos vivos y descarta de los postings los eliminados
+     */
+    private void compact() {
+        int[] newDocNumbers = new int[docCount];
+        int next = 0;
+        for (int doc = 0; doc < docCount; doc++) {
+            if (live.get(doc)) {
+                newDocNumbers[doc] = next;
+                activityIds[next] = activityIds[doc];
+                levelIds[next] = levelIds[doc];
+                types[next] = types[doc];
+                lengths[next] = lengths[doc];
+                docByActivityId.put(activityIds[next], next);
+                next++;
+            } else {
+                newDocNumbers[doc] = -1;
+            }
+        }
+        var iterator = terms.values().iterator();
+        while (iterator.hasNext()) {
+            Postings postings = iterator.next();
+            int kept = 0;
+            for (int i = 0; i < postings.size; i++) {
+                int newDoc = newDocNumbers[postings.docs[i]];
+                if (newDoc >= 0) {
+                    postings.docs[kept] = newDoc;
+                    postings.freqs[kept] = postings.freqs[i];
+                    kept++;
+                }
+            }
+            postings.size = kept;
+            if (kept == 0) {
+                iterator.remove();
+            }
+        }
+        live.clear();
+        live.set(0, next);
+        docCount = next;
+    }
+
+    /**
+     * Suma el aporte BM25 del término. lastMatchedTerm[doc] llega a t solo si el documento
+     * contiene los términos 1..t; varias expansiones de un mismo prefijo cuentan una vez.
+     */
+    private void accumulate(Postings postings, int termNumber, float[] scores, int[] lastMatchedTerm, float avgLength) {
+        int documentFrequency = 0;
+        for (int i = 0; i < postings.size; i++) {
+            if (live.get(postings.docs[i])) {
+                documentFrequency++;
+            }
+        }
+        if (documentFrequency == 0) {
+            return;
+        }
+        float idf = (float) Math.log(1 + (liveCount - documentFrequency + 0.5) / (documentFrequency + 0.5));
+        for (int i = 0; i < postings.size; i++) {
+            int doc = postings.docs[i];
+            if (!live.get(doc)) {
+                continue;
+            }
+            float tf = postings.freqs[i];
+            scores[doc] += idf * tf * (K1 + 1) / (tf + K1 * (1 - B + B * lengths[doc] / avgLength));
+            if (lastMatchedTerm[doc] == termNumber - 1) {
+                lastMatchedTerm[doc] = termNumber;
+            }
+        }
+    }
+
+    private Map<String, Postings> singleTerm(String term) {
+        Postings postings = terms.get(term);
+        return postings == null ? Map.of() : Map.of(term, postings);
+    }
+
+    private Map<String, Postings> prefixRange(String prefix) {
+        SortedMap<String, Postings> range = terms.subMap(prefix, prefix + Character.MAX_VALUE);
+        if (range.size() <= MAX_PREFIX_EXPANSIONS) {
+            return range;
+        }
+        // Prefijos muy cortos: se limitan a las primeras expansiones en orden alfabético
+        Map<String, Postings> limited = new LinkedHashMap<>();
+        for (Map.Entry<String, Postings> entry : range.entrySet()) {
+            if (limited.size() == MAX_PREFIX_EXPANSIONS) {
+                break;
+            }
+            limited.put(entry.getKey(), entry.getValue());
+        }
+        return limited;
+    }
+
+    private List<ActivitySearchHit> loadHits(long[] rankedIds, float[] rankedScores) {
+        if (rankedIds.length == 0) {
+            return List.of();
+        }
+        List<Long> ids = Arrays.stream(rankedIds).boxed().toList();
+        Map<Long, ActivityDTO> activities = activityRepository.findDTOsByIdIn(ids).stream()
+                .collect(Collectors.toMap(ActivityDTO::getId, Function.identity()));
+        List<ActivitySearchHit> hits = new ArrayList<>(rankedIds.length);
+        for (int i = 0; i < rankedIds.length; i++) {
+            ActivityDTO activity = activities.get(rankedIds[i]);
+            // Puede faltar si se eliminó entre la búsqueda y la carga
+            if (activity != null) {
+                hits.add(new ActivitySearchHit(activity, rankedScores[i]));
+            }
+        }
+        return hits;
+    }
+
+    private static int countTerms(String text, int weight, Map<String, int[]> frequencies) {
+        int count = 0;
+        for (String token : tokenize(text)) {
+            frequencies.computeIfAbsent(token, key -> new int[1])[0] += weight;
+            count += weight;
+        }
+        return count;
+    }
+
+    /**
+     * Minúsculas, sin tildes y separado en letras/dígitos ("Canción" y "cancion" coinciden)
+     */
+    static List<String> tokenize(String text) {
+        if (text == null || text.isEmpty()) {
+            return List.of();
+        }
+        String normalized = DIACRITICS.matcher(Normalizer.normalize(text, Normalizer.Form.NFD)).replaceAll("")
+                .toLowerCase(Locale.ROOT);
+        List<String> tokens = new ArrayList<>();
+        for (String token : NON_WORD.split(normalized)) {
+            if (!token.isEmpty()) {
+                tokens.add(token);
+            }
+        }
+        return tokens;
+    }
+}
@@ -5,9 +5,9 @@ import com.englishproject.englishteacherapi.model.Level;
 import com.englishproject.englishteacherapi.repository.LevelRepository;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 import java.util.List;
 import java.util.Optional;
-import java.util.stream.Collectors;
 
 @Service
 public class LevelService {
@@ -15,59 +15,60 @@ public class LevelService {
     @Autowired
     private LevelRepository levelRepository;
 
+    @Autowired
+    private CatalogSnapshotService catalogSnapshotService;
+
+    // Solo existe con app.search.engine=memory
+    @Autowired(required = false)
+    private InMemoryActivityIndex inMemoryActivityIndex;
+
     public List<LevelDTO> getAllLevels() {
-        return levelRepository.findAll().stream()
-                .map(this::convertToDTO)
-                .collect(Collectors.toList());
+        return levelRepository.findAllWithActiveActivitiesCount();
     }
 
     public Optional<LevelDTO> getLevelById(Long id) {
-        return levelRepository.findById(id)
-                .map(this::convertToDTO);
+        return levelRepository.findByIdWithActiveActivitiesCount(id);
     }
 
     public Optional<LevelDTO> getLevelByName(String name) {
-        return levelRepository.findByName(name)
-                .map(this::convertToDTO);
+        return levelRepository.findByNameWithActiveActivitiesCount(name);
     }
 
+    @Transactional
     public LevelDTO createLevel(LevelDTO levelDTO) {
         Level level = convertToEntity(levelDTO);
         Level savedLevel = levelRepository.save(level);
-        return convertToDTO(savedLevel);
+        catalogSnapshotService.levelChanged(savedLevel.getId());
+        // Un nivel recién creado no tiene actividades
+        return new LevelDTO(savedLevel.getId(), savedLevel.getName(), savedLevel.getDescription(), 0L);
     }
 
+    @Transactional
     public Optional<LevelDTO> updateLevel(Long id, LevelDTO levelDTO) {
         return levelRepository.findById(id)
                 .map(level -> {
                     updateLevelFromDTO(level, levelDTO);
                     Level savedLevel = levelRepository.save(level);
-                    return convertToDTO(savedLevel);
-                });
+                    catalogSnapshotService.levelChanged(savedLevel.getId());
+                    return savedLevel.getId();
+                })
+                .flatMap(levelRepository::findByIdWithActiveActivitiesCount);
     }
 
+    @Transactional
     public boolean deleteLevel(Long id) {
         if (levelRepository.existsById(id)) {
             levelRepository.deleteById(id);
+            catalogSnapshotService.levelChanged(id);
+            // Las actividades del nivel se eliminan en cascada: también salen del índice de búsqueda
+            if (inMemoryActivityIndex != null) {
+                inMemoryActivityIndex.levelDeleted(id);
+            }
             return true;
         }
         return false;
     }
 
-    private LevelDTO convertToDTO(Level level) {
-        Long activitiesCount = level.getActivities() != null ?
-            level.getActivities().stream()
-                .filter(activity -> Boolean.TRUE.equals(activity.getIsActive()))
-                .count() : 0L;
-
-        return new LevelDTO(
-                level.getId(),
-                level.getName(),
-                level.getDescription(),
-                activitiesCount
-        );
-    }
-
     private Level convertToEntity(LevelDTO levelDTO) {
         Level level = new Level();
         updateLevelFromDTO(level, levelDTO);
@@ -0,0 +1,96 @@
+package com.englishproject.englishteacherapi.service;
+
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Registro de métricas propio (el proyecto no depende de Micrometer).
+ * Los histogramas y contadores se crean una vez y los componentes guardan la referencia;
+ * en el camino caliente solo se llama a record()/add(), que no reservan memoria.
+ * scrape() genera el formato de texto de Prometheus.
+ */
+@Component
+public class MetricsRegistry {
+
+    private static final double NANOS_PER_SECOND = 1_000_000_000.0;
+    private static final double[] QUANTILES = {0.5, 0.9, 0.99, 0.999};
+
+    /**
+     * Unidad de los valores registrados en una familia de histogramas
+     */
+    public enum Unit {
+        NANOSECONDS,
+        BYTES
+    }
+
+    private record Family(String help, Unit unit, Map<String, LatencyHistogram> histograms) {
+    }
+
+    private record Counter(String help, LongAdder value) {
+    }
+
+    // Ordenados para que la salida del scrape sea estable
+    private final Map<String, Family> families = new ConcurrentSkipListMap<>();
+    private final Map<String, Counter> counters = new ConcurrentSkipListMap<>();
+
+    /**
+     * Histograma de la familia indicada para un valor de la etiqueta; se crea la primera vez
+     * @param family nombre de la métrica en Prometheus (sin sufijo de unidad)
+     * @param labelName nombre de la etiqueta (p. ej. "handler")
+     * @param labelValue valor de la etiqueta (p. ej. "ActivityController.getAllActivities")
+     */
+    public LatencyHistogram histogram(String family, String help, Unit unit, String labelName, String labelValue) {
+        Family metricFamily = families.computeIfAbsent(family,
+                name -> new Family(help, unit, new ConcurrentSkipListMap<>()));
+        return metricFamily.histograms().computeIfAbsent(labelName + "=\"" + escape(labelValue) + "\"",
+                label -> new LatencyHistogram());
+    }
+
+    public LongAdder counter(String name, String help) {
+        return counters.computeIfAbsent(name, key -> new Counter(help, new LongAdder())).value();
+    }
+
+    /**
+     * Todas las métricas en formato de exposición de Prometheus (text/plain 0.0.4)
+     */
+    public String scrape() {
+        StringBuilder out = new StringBuilder(4096);
+        for (Map.Entry<String, Family> entry : families.entrySet()) {
+            Family family = entry.getValue();
+            String name = entry.getKey() + (family.unit() == Unit.NANOSECONDS ? "_seconds" : "_bytes");
+            out.append("# HELP ").append(name).append(' ').append(family.help()).append('\n');
+            out.append("# TYPE ").append(name).append(" summary\n");
+            for (Map.Entry<String, LatencyHistogram> labeled : family.histograms().entrySet()) {
+                String labels = labeled.getKey();
+                LatencyHistogram histogram = labeled.getValue();
+                for (double quantile : QUANTILES) {
+                    out.append(name).append('{').append(labels).append(",quantile=\"").append(quantile).append("\"} ")
+                            .append(format(histogram.percentile(quantile * 100), family.unit())).append('\n');
+                }
+                out.append(name).append("_sum{").append(labels).append("} ")
+                        .append(format(histogram.sum(), family.unit())).append('\n');
+                out.append(name).append("_count{").append(labels).append("} ")
+                        .append(histogram.count()).append('\n');
+            }
+        }
+        for (Map.Entry<String, Counter> entry : counters.entrySet()) {
+            String name = entry.getKey();
+            out.append("# HELP ").append(name).append(' ').append(entry.getValue().help()).append('\n');
+            out.append("# TYPE ").append(name).append(" counter\n");
+            out.append(name).append(' ').append(entry.getValue().value().sum()).append('\n');
+        }
+        return out.toString();
+    }
+
+    private static String format(long value, Unit unit) {
+        return unit == Unit.NANOSECONDS ? Double.toString(value / NANOS_PER_SECOND) : Long.toString(value);
+    }
+
+    private static String escape(String labelValue) {
+        return labelValue.replace("\\", "\\\\").replace("\"", "\\\"");
+    }
+}
@@ -0,0 +1,144 @@
+package com.englishproject.englishteacherapi.service;
+
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.stereotype.Service;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Hash y verificación BCrypt en un pool dedicado y acotado.
+ * Un pico de logins solo puede ocupar una fracción de los cores: cuando el pool y su cola
+ * están llenos la tarea se rechaza de inmediato con RejectedExecutionException
+ * en lugar de competir por CPU con las lecturas del catálogo.
+ */
+@Service
+public class PasswordHashingService {
+
+    private static final Logger logger = LoggerFactory.getLogger(PasswordHashingService.class);
+
+    private static final Pattern BCRYPT_COST_PATTERN = Pattern.compile("^\\$2[abxy]?\\$(\\d{2})\\$");
+    private static final long MAX_WAIT_SECONDS = 10;
+
+    private final BCryptPasswordEncoder passwordEncoder;
+    private final int strength;
+    private final long maxWaitMillis;
+    private final ThreadPoolExecutor executor;
+    private final LatencyHistogram hashLatency;
+    private final LatencyHistogram matchLatency;
+
+    @Autowired
+    public PasswordHashingService(@Value("${app.security.bcrypt-strength:10}") int strength,
+                                  @Value("${app.security.password-hashing.threads:0}") int threads,
+                                  @Value("${app.security.password-hashing.queue-capacity:32}") int queueCapacity,
+                                  MetricsRegistry metricsRegistry) {
+        this(strength, threads, queueCapacity, TimeUnit.SECONDS.toMillis(MAX_WAIT_SECONDS), metricsRegistry);
+    }
+
+    /**
+     * @param maxWaitMillis espera máxima por el resultado, cola incluida (los tests la acortan)
+     */
+    PasswordHashingService(int strength, int threads, int queueCapacity, long maxWaitMillis,
+                           MetricsRegistry metricsRegistry) {
+        this.strength = strength;
+        this.maxWaitMillis = maxWaitMillis;
+        this.passwordEncoder = new BCryptPasswordEncoder(strength);
+        // Solo el cómputo de BCrypt, sin la espera en la cola del pool
+        this.hashLatency = metricsRegistry.histogram("bcrypt", "Tiempo de cómputo de BCrypt",
+                MetricsRegistry.Unit.NANOSECONDS, "operation", "hash");
+        this.matchLatency = metricsRegistry.histogram("bcrypt", "Tiempo de cómputo de BCrypt",
+                MetricsRegistry.Unit.NANOSECONDS, "operation", "matches");
+
+        // Por defecto la mitad de los cores (al menos uno)
+        int poolSize = threads > 0 ? threads : Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+        this.executor = new ThreadPoolExecutor(
+                poolSize, poolSize, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                Thread.ofPlatform().name("password-hashing-", 1).daemon(true).factory(),
+                new ThreadPoolExecutor.AbortPolicy());
+        logger.info("Pool de hashing de contraseñas: {} hilos, cola de {}, BCrypt strength {}",
+                poolSize, queueCapacity, strength);
+    }
+
+    /**
+     * Genera el hash BCrypt de la contraseña con el cost factor configurado
+     * @throws RejectedExecutionException si el pool está saturado
+     */
+    public String hash(String plainPassword) {
+        return runBounded(() -> {
+            long start = System.nanoTime();
+            try {
+                return passwordEncoder.encode(plainPassword);
+            } finally {
+                hashLatency.recordSince(start);
+            }
+        });
+    }
+
+    /**
+     * Verifica la contraseña contra el hash guardado
+     * @throws RejectedExecutionException si el pool está saturado
+     */
+    public boolean matches(String plainPassword, String passwordHash) {
+        if (plainPassword == null || passwordHash == null) {
+            return false;
+        }
+        return runBounded(() -> {
+            long start = System.nanoTime();
+            try {
+                return passwordEncoder.matches(plainPassword, passwordHash);
+            } finally {
+                matchLatency.recordSince(start);
+            }
+        });
+    }
+
+    /**
+     * Indica si el hash se generó con un cost factor distinto al configurado
+     */
+    public boolean needsRehash(String passwordHash) {
+        if (passwordHash == null) {
+            return false;
+        }
+        Matcher matcher = BCRYPT_COST_PATTERN.matcher(passwordHash);
+        return matcher.find() && Integer.parseInt(matcher.group(1)) != strength;
+    }
+
+    /**
+     * Ejecuta la tarea en el pool y espera su resultado como máximo maxWaitMillis
+     * @throws RejectedExecutionException si el pool y la cola están llenos, o se agotó la espera
+     */
+    <T> T runBounded(Callable<T> task) {
+        Future<T> future = executor.submit(task);
+        try {
+            return future.get(maxWaitMillis, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            future.cancel(true);
+            throw new RejectedExecutionException("Tiempo de espera agotado en el pool de hashing", e);
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new RejectedExecutionException("Hashing interrumpido", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Error calculando el hash de la contraseña", e.getCause());
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+}
@@ -15,6 +15,12 @@ public class TeacherService {
     @Autowired
     private TeacherRepository teacherRepository;
 
+    @Autowired
+    private VerifiedTokenCache verifiedTokenCache;
+
+    @Autowired
+    private PasswordHashingService passwordHashingService;
+
     public List<TeacherDTO> getAllTeachers() {
         return teacherRepository.findAll()
                 .stream()
@@ -36,6 +42,8 @@ public class TeacherService {
     public Optional<TeacherDTO> updateTeacher(Long id, TeacherDTO teacherDTO) {
         return teacherRepository.findById(id)
                 .map(teacher -> {
+                    // Los tokens emitidos para el email anterior dejan de considerarse verificados
+                    verifiedTokenCache.evictByEmail(teacher.getEmail());
                     updateTeacherFromDTO(teacher, teacherDTO);
                     Teacher savedTeacher = teacherRepository.save(teacher);
                     return convertToDTO(savedTeacher);
@@ -43,8 +51,10 @@ public class TeacherService {
     }
 
     public boolean deleteTeacher(Long id) {
-        if (teacherRepository.existsById(id)) {
+        Optional<Teacher> teacher = teacherRepository.findById(id);
+        if (teacher.isPresent()) {
             teacherRepository.deleteById(id);
+            verifiedTokenCache.evictByEmail(teacher.get().getEmail());
             return true;
         }
         return false;
@@ -85,7 +95,7 @@ public class TeacherService {
 
         // Solo actualizar la contraseña si se proporciona una nueva
         if (teacherDTO.getPassword() != null && !teacherDTO.getPassword().trim().isEmpty()) {
-            teacher.setPasswordWithHash(teacherDTO.getPassword());
+            teacher.setPassword(passwordHashingService.hash(teacherDTO.getPassword()));
         }
     }
 }
@@ -2,6 +2,7 @@ package com.englishproject.englishteacherapi.service;
 
 import io.jsonwebtoken.*;
 import io.jsonwebtoken.security.Keys;
+import jakarta.annotation.PostConstruct;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
@@ -20,6 +21,18 @@ public class TokenServices {
     @Value("${jwt.expiration:1800}") // 30 minutos por defecto
     private int defaultExpirationTime;
 
+    // Clave y parser se construyen una sola vez al iniciar (son inmutables y thread-safe)
+    private SecretKey signingKey;
+    private JwtParser jwtParser;
+
+    @PostConstruct
+    void initSigningKey() {
+        this.signingKey = Keys.hmacShaKeyFor(secretKey.getBytes());
+        this.jwtParser = Jwts.parserBuilder()
+                .setSigningKey(signingKey)
+                .build();
+    }
+
     /**
      * Genera un token JWT para un usuario
      */
@@ -40,19 +53,39 @@ public class TokenServices {
      */
     private String createToken(Map<String, Object> claims, String subject, int expirationTimeInSeconds) {
         Date now = new Date(System.currentTimeMillis());
-        Date expiryDate = new Date(System.currentTimeMillis() + expirationTimeInSeconds * 1000L);
-
-        SecretKey key = Keys.hmacShaKeyFor(secretKey.getBytes());
+        Date expiryDate = new Date(now.getTime() + expirationTimeInSeconds * 1000L);
 
         return Jwts.builder()
                 .setClaims(claims)
                 .setSubject(subject)
                 .setIssuedAt(now)
                 .setExpiration(expiryDate)
-                .signWith(key, SignatureAlgorithm.HS256)
+                .signWith(signingKey, SignatureAlgorithm.HS256)
                 .compact();
     }
 
+    /**
+     * Parsea y verifica el token una única vez
+     * @param token Token JWT
+     * @return ParsedToken con subject, expiración y validez (nunca null)
+     */
+    public ParsedToken parseToken(String token) {
+        if (token == null || token.isEmpty()) {
+            return ParsedToken.INVALID;
+        }
+        try {
+            Claims claims = jwtParser.parseClaimsJws(token).getBody();
+            Date expiration = claims.getExpiration();
+            boolean valid = expiration == null || expiration.after(new Date());
+            return new ParsedToken(claims.getSubject(), expiration, valid);
+        } catch (ExpiredJwtException e) {
+            // Firma correcta pero expirado: conservamos los datos, marcado como inválido
+            return new ParsedToken(e.getClaims().getSubject(), e.getClaims().getExpiration(), false);
+        } catch (JwtException | IllegalArgumentException e) {
+            return ParsedToken.INVALID;
+        }
+    }
+
     /**
      * Extrae el email (subject) del token
      */
@@ -79,13 +112,7 @@ public class TokenServices {
      * Extrae todos los claims del token
      */
     private Claims extractAllClaims(String token) {
-        SecretKey key = Keys.hmacShaKeyFor(secretKey.getBytes());
-
-        return Jwts.parserBuilder()
-                .setSigningKey(key)
-                .build()
-                .parseClaimsJws(token)
-                .getBody();
+        return jwtParser.parseClaimsJws(token).getBody();
     }
 
     /**
@@ -103,24 +130,15 @@ public class TokenServices {
      * Valida el token
      */
     public boolean validateToken(String token, String email) {
-        try {
-            final String extractedEmail = extractEmail(token);
-            return (extractedEmail.equals(email) && !isTokenExpired(token));
-        } catch (JwtException | IllegalArgumentException e) {
-            return false;
-        }
+        ParsedToken parsed = parseToken(token);
+        return parsed.valid() && parsed.subject() != null && parsed.subject().equals(email);
     }
 
     /**
      * Valida si el token es válido (sin verificar el email)
      */
     public boolean validateToken(String token) {
-        try {
-            extractAllClaims(token);
-            return !isTokenExpired(token);
-        } catch (JwtException | IllegalArgumentException e) {
-            return false;
-        }
+        return parseToken(token).valid();
     }
 
     /**
@@ -130,4 +148,15 @@ public class TokenServices {
     public interface ClaimsResolver<T> {
         T resolve(Claims claims);
     }
+
+    /**
+     * Resultado inmutable de parsear y verificar un token
+     * @param subject email del profesor (null si la firma no es válida)
+     * @param expiration fecha de expiración (null si la firma no es válida)
+     * @param valid true si la firma es correcta y el token no expiró
+     */
+    public record ParsedToken(String subject, Date expiration, boolean valid) {
+
+        static final ParsedToken INVALID = new ParsedToken(null, null, false);
+    }
 }
@@ -0,0 +1,110 @@
+package com.englishproject.englishteacherapi.service;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+/**
+ * Cache acotada de tokens JWT ya verificados.
+ * La clave es un digest SHA-256 del token (nunca se guarda el token en claro)
+ * y el valor el email del profesor junto con la expiración del token.
+ * Un acierto evita volver a verificar la firma y consultar la base de datos.
+ * Cada entrada vive como máximo app.security.verified-token-ttl-seconds: evictByEmail solo limpia
+ * esta réplica, así que el TTL acota cuánto tiempo otra instancia sigue aceptando el token
+ * de un profesor eliminado o modificado.
+ */
+@Component
+public class VerifiedTokenCache {
+
+    private static final int DEFAULT_MAX_ENTRIES = 10_000;
+
+    private final Map<String, VerifiedToken> entries = new ConcurrentHashMap<>();
+    private final long ttlMillis;
+    private final int maxEntries;
+    private final LongSupplier clock;
+
+    @Autowired
+    public VerifiedTokenCache(@Value("${app.security.verified-token-ttl-seconds:30}") long ttlSeconds) {
+        this(TimeUnit.SECONDS.toMillis(ttlSeconds), DEFAULT_MAX_ENTRIES, System::currentTimeMillis);
+    }
+
+    /**
+     * @param clock milisegundos actuales (System.currentTimeMillis fuera de los tests)
+     */
+    VerifiedTokenCache(long ttlMillis, int maxEntries, LongSupplier clock) {
+        this.ttlMillis = ttlMillis;
+        this.maxEntries = maxEntries;
+        this.clock = clock;
+    }
+
+    /**
+     * Devuelve el email asociado al token si está en cache y no expiró
+     * @param token Token JWT en claro
+     * @return email del profesor o null si no hay entrada válida
+     */
+    public String getEmail(String token) {
+        String key = digest(token);
+        VerifiedToken verified = entries.get(key);
+        if (verified == null) {
+            return null;
+        }
+        if (verified.expiresAtMillis() <= clock.getAsLong()) {
+            entries.remove(key, verified);
+            return null;
+        }
+        return verified.email();
+    }
+
+    /**
+     * Registra un token verificado hasta su fecha de expiración o hasta que venza el TTL, lo que ocurra antes
+     */
+    public void put(String token, String email, long expiresAtMillis) {
+        if (entries.size() >= maxEntries) {
+            evictExpired();
+            if (entries.size() >= maxEntries) {
+                // Sin espacio: preferimos vaciar antes que crecer sin límite
+                entries.clear();
+            }
+        }
+        long cachedUntil = Math.min(expiresAtMillis, clock.getAsLong() + ttlMillis);
+        entries.put(digest(token), new VerifiedToken(email, cachedUntil));
+    }
+
+    /**
+     * Invalida todos los tokens de un profesor (al actualizarlo o eliminarlo) en esta réplica;
+     * las demás los descartan al vencer el TTL
+     */
+    public void evictByEmail(String email) {
+        if (email == null) {
+            return;
+        }
+        entries.values().removeIf(verified -> email.equals(verified.email()));
+    }
+
+    private void evictExpired() {
+        long now = clock.getAsLong();
+        entries.values().removeIf(verified -> verified.expiresAtMillis() <= now);
+    }
+
+    private static String digest(String token) {
+        try {
+            MessageDigest sha256 = MessageDigest.getInstance("SHA-256");
+            byte[] hash = sha256.digest(token.getBytes(StandardCharsets.UTF_8));
+            return Base64.getEncoder().encodeToString(hash);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 no disponible", e);
+        }
+    }
+
+    private record VerifiedToken(String email, long expiresAtMillis) {
+    }
+}
@@ -0,0 +1,74 @@
+package com.englishproject.englishteacherapi.config;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfEnvironmentVariable;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Los índices parciales y GIN que crea DatabaseIndexInitializer son los que elige el planner
+ * para las consultas de ActivityRepository y ActivitySearchRepository.
+ * Solo corre contra un PostgreSQL real (H2 no soporta índices parciales ni tsvector):
+ *   DATABASE_URL=jdbc:postgresql://localhost:5432/englishteacher_db mvn test -Dtest=DatabaseIndexInitializerTests
+ */
+@SpringBootTest(properties = "app.seed.mode=off")
+@EnabledIfEnvironmentVariable(named = "DATABASE_URL", matches = "jdbc:postgresql:.*")
+class DatabaseIndexInitializerTests {
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void activeActivitiesByLevelUseThePartialIndex() {
+        assertPlanUses("idx_activities_active_level_created",
+                "SELECT id FROM activities WHERE level_id = 1 AND is_active = true " +
+                "ORDER BY created_at DESC, id DESC LIMIT 50");
+    }
+
+    @Test
+    void activeActivitiesByTypeUseThePartialIndex() {
+        assertPlanUses("idx_activities_active_type_created",
+                "SELECT id FROM activities WHERE type = 'READING' AND is_active = true " +
+                "ORDER BY created_at DESC, id DESC LIMIT 50");
+    }
+
+    @Test
+    void fullTextSearchUsesTheGinIndex() {
+        assertPlanUses("idx_activities_search",
+                "SELECT a.id FROM activities a, websearch_to_tsquery('simple', 'grammar') q " +
+                "WHERE a.is_active = true AND a.search_vector @@ q");
+    }
+
+    /**
+     * EXPLAIN con seq scans deshabilitados: en una tabla chica el planner preferiría leerla entera,
+     * así se verifica que el índice existe y es aplicable al predicado
+     */
+    private void assertPlanUses(String index, String query) {
+        String plan = jdbcTemplate.execute((ConnectionCallback<String>) connection -> {
+            try (Statement statement = connection.createStatement()) {
+                statement.execute("SET enable_seqscan = off");
+            }
+            StringBuilder lines = new StringBuilder();
+            try (PreparedStatement explain = connection.prepareStatement("EXPLAIN " + query);
+                 ResultSet rows = explain.executeQuery()) {
+                while (rows.next()) {
+                    lines.append(rows.getString(1)).append('\n');
+                }
+            } finally {
+                try (Statement statement = connection.createStatement()) {
+                    statement.execute("RESET enable_seqscan");
+                }
+            }
+            return lines.toString();
+        });
+        assertTrue(plan.contains(index), "El plan no usa " + index + ":\n" + plan);
+    }
+}
@@ -0,0 +1,85 @@
+package com.englishproject.englishteacherapi.controller;
+
+import com.englishproject.englishteacherapi.repository.LevelRepository;
+import com.englishproject.englishteacherapi.service.ActivitySearchService;
+import com.englishproject.englishteacherapi.service.TokenServices;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.WebApplicationContext;
+
+import static org.springframework.security.test.web.servlet.setup.SecurityMockMvcConfigurers.springSecurity;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Validación de parámetros de ActivityController sobre el perfil de tests (H2)
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class ActivityControllerTests {
+
+    private static final String TEACHER_EMAIL = "paz.valdez@englishteacher.com";
+
+    @Autowired
+    private WebApplicationContext context;
+
+    @Autowired
+    private LevelRepository levelRepository;
+
+    @Autowired
+    private TokenServices tokenServices;
+
+    private MockMvc mockMvc;
+    private String bearerToken;
+    private Long levelId;
+
+    @BeforeAll
+    void setUp() {
+        mockMvc = MockMvcBuilders.webAppContextSetup(context).apply(springSecurity()).build();
+        bearerToken = "Bearer " + tokenServices.generateToken(TEACHER_EMAIL);
+        levelId = levelRepository.findAll().get(0).getId();
+    }
+
+    @Test
+    void summaryViewCannotBeStreamed() throws Exception {
+        mockMvc.perform(get("/api/activities").param("view", "summary").param("format", "ndjson"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.success").value(false));
+        mockMvc.perform(get("/api/activities/level/{levelId}", levelId)
+                        .param("view", "summary").param("format", "ndjson"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/api/activities/type/{type}", "READING").header("Authorization", bearerToken)
+                        .param("view", "summary").param("format", "ndjson"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/api/activities/level/{levelId}/type/{type}", levelId, "READING")
+                        .header("Authorization", bearerToken)
+                        .param("view", "summary").param("format", "ndjson"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void searchRejectsBlankAndOverlongQueries() throws Exception {
+        mockMvc.perform(get("/api/activities/search").param("q", "   "))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value("La consulta de búsqueda es obligatoria"));
+        mockMvc.perform(get("/api/activities/search").param("q", "a".repeat(ActivitySearchService.MAX_QUERY_LENGTH + 1)))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.success").value(false));
+        mockMvc.perform(get("/api/activities/search").param("q", "a".repeat(ActivitySearchService.MAX_QUERY_LENGTH)))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    void searchRejectsMalformedCursor() throws Exception {
+        mockMvc.perform(get("/api/activities/search").param("q", "grammar").param("cursor", "no-es-un-cursor"))
+                .andExpect(status().isBadRequest());
+    }
+}
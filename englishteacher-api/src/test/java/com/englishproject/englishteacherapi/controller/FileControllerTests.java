@@ -0,0 +1,187 @@
+package com.englishproject.englishteacherapi.controller;
+
+import com.englishproject.englishteacherapi.dto.ActivityDTO;
+import com.englishproject.englishteacherapi.model.Activity;
+import com.englishproject.englishteacherapi.repository.LevelRepository;
+import com.englishproject.englishteacherapi.service.ActivityService;
+import com.englishproject.englishteacherapi.service.TokenServices;
+import com.jayway.jsonpath.JsonPath;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.WebApplicationContext;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileSystem;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.security.test.web.servlet.setup.SecurityMockMvcConfigurers.springSecurity;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.multipart;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Subidas direccionadas por contenido: nombre = SHA-256, deduplicación y protección de archivos en uso.
+ * El directorio de subidas del controller se redirige a un directorio temporal durante la clase.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class FileControllerTests {
+
+    private static final String TEACHER_EMAIL = "paz.valdez@englishteacher.com";
+    private static final byte[] PDF_CONTENT = "%PDF-1.4 guía de ejercicios".getBytes(StandardCharsets.UTF_8);
+
+    @TempDir
+    static Path uploadDir;
+
+    @Autowired
+    private WebApplicationContext context;
+
+    @Autowired
+    private FileController fileController;
+
+    @Autowired
+    private ActivityService activityService;
+
+    @Autowired
+    private LevelRepository levelRepository;
+
+    @Autowired
+    private TokenServices tokenServices;
+
+    private MockMvc mockMvc;
+    private String bearerToken;
+    private Object originalUploadDir;
+
+    @BeforeAll
+    void setUp() {
+        mockMvc = MockMvcBuilders.webAppContextSetup(context).apply(springSecurity()).build();
+        bearerToken = "Bearer " + tokenServices.generateToken(TEACHER_EMAIL);
+        originalUploadDir = ReflectionTestUtils.getField(fileController, "uploadDir");
+        ReflectionTestUtils.setField(fileController, "uploadDir", uploadDir.toString());
+    }
+
+    @AfterAll
+    void restoreUploadDir() {
+        ReflectionTestUtils.setField(fileController, "uploadDir", originalUploadDir);
+    }
+
+    @Test
+    void storeNamesTheFileByItsHashAndLinksIt() throws Exception {
+        Path activities = Files.createDirectories(uploadDir.resolve("store-link"));
+
+        FileController.StoredFile stored = FileController.storeContentAddressed(
+                new ByteArrayInputStream(PDF_CONTENT), activities, ".PDF");
+
+        assertEquals(sha256(PDF_CONTENT) + ".pdf", stored.fileName());
+        assertFalse(stored.alreadyExisted());
+        assertArrayEquals(PDF_CONTENT, Files.readAllBytes(activities.resolve(stored.fileName())));
+        assertEquals(1, countFiles(activities), "El temporal upload-*.tmp no debe quedar en el directorio");
+
+        FileController.StoredFile again = FileController.storeContentAddressed(
+                new ByteArrayInputStream(PDF_CONTENT), activities, ".pdf");
+        assertEquals(stored.fileName(), again.fileName());
+        assertTrue(again.alreadyExisted());
+        assertEquals(1, countFiles(activities));
+    }
+
+    @Test
+    void storeFallsBackToMoveWithoutHardLinks() throws Exception {
+        // El sistema de archivos zip no soporta hard links: createLink lanza UnsupportedOperationException
+        try (FileSystem zip = FileSystems.newFileSystem(uploadDir.resolve("sin-links.zip"), Map.of("create", "true"))) {
+            Path activities = Files.createDirectories(zip.getPath("/activities"));
+
+            FileController.StoredFile stored = FileController.storeContentAddressed(
+                    new ByteArrayInputStream(PDF_CONTENT), activities, ".pdf");
+
+            assertFalse(stored.alreadyExisted());
+            assertArrayEquals(PDF_CONTENT, Files.readAllBytes(activities.resolve(stored.fileName())));
+            assertEquals(1, countFiles(activities));
+        }
+    }
+
+    @Test
+    void uploadingTheSameContentTwiceReturnsTheExistingFileUrl() throws Exception {
+        byte[] content = "%PDF-1.4 mismo contenido".getBytes(StandardCharsets.UTF_8);
+        String firstUrl = upload(content, "primera.pdf", false);
+        String secondUrl = upload(content, "segunda.pdf", true);
+
+        assertEquals(firstUrl, secondUrl);
+        assertEquals("/api/files/activities/" + sha256(content) + ".pdf", firstUrl);
+    }
+
+    @Test
+    void deletingAFileStillReferencedIsConflict() throws Exception {
+        byte[] content = "%PDF-1.4 archivo en uso".getBytes(StandardCharsets.UTF_8);
+        String fileUrl = upload(content, "en-uso.pdf", false);
+        String fileName = fileUrl.substring(fileUrl.lastIndexOf('/') + 1);
+        ActivityDTO activity = activityService.createActivity(activityUsing(fileUrl));
+
+        try {
+            mockMvc.perform(delete("/api/files/activities/{fileName}", fileName).header("Authorization", bearerToken))
+                    .andExpect(status().isConflict())
+                    .andExpect(jsonPath("$.success").value(false));
+            assertTrue(Files.exists(uploadDir.resolve("activities").resolve(fileName)));
+        } finally {
+            activityService.deleteActivity(activity.getId());
+        }
+
+        mockMvc.perform(delete("/api/files/activities/{fileName}", fileName).header("Authorization", bearerToken))
+                .andExpect(status().isOk());
+        assertFalse(Files.exists(uploadDir.resolve("activities").resolve(fileName)));
+    }
+
+    private String upload(byte[] content, String originalName, boolean expectDeduplicated) throws Exception {
+        String body = mockMvc.perform(multipart("/api/files/upload/activity")
+                        .file(new MockMultipartFile("file", originalName, "application/pdf", content))
+                        .header("Authorization", bearerToken))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.deduplicated").value(expectDeduplicated))
+                .andReturn().getResponse().getContentAsString();
+        return JsonPath.read(body, "$.fileUrl");
+    }
+
+    private ActivityDTO activityUsing(String fileUrl) {
+        ActivityDTO activity = new ActivityDTO();
+        activity.setTitle("Actividad con archivo");
+        activity.setDescription("Referencia un archivo direccionado por contenido");
+        activity.setContent("Contenido");
+        activity.setType(Activity.ActivityType.READING);
+        activity.setLevelId(levelRepository.findAll().get(0).getId());
+        activity.setResourceFileUrl(fileUrl);
+        activity.setIsActive(true);
+        return activity;
+    }
+
+    private static long countFiles(Path directory) throws Exception {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.count();
+        }
+    }
+
+    private static String sha256(byte[] content) throws Exception {
+        return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(content));
+    }
+}
@@ -0,0 +1,50 @@
+package com.englishproject.englishteacherapi.dto;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class SearchCursorTests {
+
+    @Test
+    void encodeAndDecodeRoundTrip() {
+        SearchCursor cursor = new SearchCursor(0.060792710f, 12345L);
+        SearchCursor decoded = SearchCursor.decode(cursor.encode());
+
+        // El score tiene que volver bit a bit igual: la página siguiente compara score = ?
+        assertEquals(Float.floatToIntBits(cursor.score()), Float.floatToIntBits(decoded.score()));
+        assertEquals(cursor, decoded);
+    }
+
+    @Test
+    void roundTripKeepsExtremeScores() {
+        for (float score : new float[]{Float.MIN_VALUE, 1e-12f, 3.4e38f, 0f}) {
+            SearchCursor cursor = new SearchCursor(score, Long.MAX_VALUE - 1);
+            assertEquals(cursor, SearchCursor.decode(cursor.encode()));
+        }
+    }
+
+    @Test
+    void missingCursorIsTheFirstPage() {
+        assertSame(SearchCursor.FIRST, SearchCursor.decode(null));
+        assertSame(SearchCursor.FIRST, SearchCursor.decode(" "));
+    }
+
+    @Test
+    void malformedCursorsAreRejected() {
+        assertThrows(IllegalArgumentException.class, () -> SearchCursor.decode("no es base64!"));
+        assertThrows(IllegalArgumentException.class, () -> SearchCursor.decode(encodeRaw("sin-separador")));
+        assertThrows(IllegalArgumentException.class, () -> SearchCursor.decode(encodeRaw("|42")));
+        assertThrows(IllegalArgumentException.class, () -> SearchCursor.decode(encodeRaw("abc|42")));
+        assertThrows(IllegalArgumentException.class, () -> SearchCursor.decode(encodeRaw("0.5|id")));
+    }
+
+    private static String encodeRaw(String raw) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+}
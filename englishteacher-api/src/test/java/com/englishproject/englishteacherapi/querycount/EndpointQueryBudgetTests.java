@@ -0,0 +1,393 @@
+package com.englishproject.englishteacherapi.querycount;
+
+import com.englishproject.englishteacherapi.controller.FileController;
+import com.englishproject.englishteacherapi.dto.ActivityDTO;
+import com.englishproject.englishteacherapi.dto.TeacherDTO;
+import com.englishproject.englishteacherapi.model.Activity;
+import com.englishproject.englishteacherapi.model.Level;
+import com.englishproject.englishteacherapi.repository.ActivityRepository;
+import com.englishproject.englishteacherapi.repository.LevelRepository;
+import com.englishproject.englishteacherapi.repository.TeacherRepository;
+import com.englishproject.englishteacherapi.service.ActivityService;
+import com.englishproject.englishteacherapi.service.TokenServices;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.request.AbstractMockHttpServletRequestBuilder;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.WebApplicationContext;
+import tools.jackson.databind.JsonNode;
+import tools.jackson.databind.ObjectMapper;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assertions.fail;
+import static org.springframework.security.test.web.servlet.setup.SecurityMockMvcConfigurers.springSecurity;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.multipart;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+
+/**
+ * Presupuesto de acceso a datos por endpoint: sentencias SQL, filas leídas y entidades
+ * hidratadas por Hibernate en cada request de ActivityController, LevelController, TeacherController,
+ * AuthController, FileController y StartupTimelineController.
+ * Los límites no dependen del tamaño del catálogo salvo donde la respuesta lo requiere,
+ * así un N+1 (una consulta o entidad extra por elemento) hace fallar el test.
+ * Al excederse se imprime cada sentencia con la parte de la pila que la originó.
+ * El directorio de subidas de FileController se redirige a un directorio temporal durante la clase.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class EndpointQueryBudgetTests {
+
+    private static final String TEACHER_EMAIL = "paz.valdez@englishteacher.com";
+    private static final String TEACHER_PASSWORD = "password123";
+    private static final int ACTIVITIES_PER_TYPE_AND_LEVEL = 5;
+    private static final int BATCH_SIZE = 20;
+
+    // Las escrituras incrementan la versión del catálogo y reconstruyen el snapshot
+    // (un nivel y el índice) después del commit
+    private static final int WRITE_STATEMENTS = 8;
+    private static final int BATCH_WRITE_STATEMENTS = 12;
+
+    // Los GET condicionales leen la versión del catálogo (una fila por clave primaria);
+    // las escrituras la vuelven a leer al incrementarla
+    private static final int VERSION_READ = 1;
+
+    @TestConfiguration
+    static class QueryCountConfig {
+        @Bean
+        static BeanPostProcessor queryCountingDataSourcePostProcessor() {
+            return QueryCountingDataSource.postProcessor();
+        }
+    }
+
+    /**
+     * Máximos permitidos para un request
+     */
+    private record Budget(int statements, long rows, long entities) {
+    }
+
+    @TempDir
+    static Path uploadDir;
+
+    @Autowired
+    private WebApplicationContext context;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private ActivityService activityService;
+
+    @Autowired
+    private ActivityRepository activityRepository;
+
+    @Autowired
+    private LevelRepository levelRepository;
+
+    @Autowired
+    private TeacherRepository teacherRepository;
+
+    @Autowired
+    private TokenServices tokenServices;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private FileController fileController;
+
+    private MockMvc mockMvc;
+    private Statistics statistics;
+    private String bearerToken;
+    private List<Long> levelIds;
+    private long teacherId;
+    private Object originalUploadDir;
+
+    @BeforeAll
+    void setUp() throws Exception {
+        mockMvc = MockMvcBuilders.webAppContextSetup(context).apply(springSecurity()).build();
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        assertTrue(statistics.isStatisticsEnabled(), "Se requiere hibernate.generate_statistics=true");
+
+        levelIds = levelRepository.findAll().stream().map(Level::getId).toList();
+        assertEquals(3, levelIds.size(), "DataInitializer (app.seed.mode=sync) debe crear los niveles de ejemplo");
+        teacherId = teacherRepository.findByEmail(TEACHER_EMAIL).orElseThrow().getId();
+
+        // Catálogo de prueba: 5 actividades por cada combinación de nivel y tipo
+        List<ActivityDTO> activities = new ArrayList<>();
+        for (Long levelId : levelIds) {
+            for (Activity.ActivityType type : Activity.ActivityType.values()) {
+                for (int i = 0; i < ACTIVITIES_PER_TYPE_AND_LEVEL; i++) {
+                    activities.add(newActivity(type + " practice " + i, levelId, type));
+                }
+            }
+        }
+        activityService.createActivities(activities);
+
+        // El primer request autenticado verifica el token contra la base; los siguientes usan la cache
+        bearerToken = "Bearer " + tokenServices.generateToken(TEACHER_EMAIL);
+        mockMvc.perform(get("/api/teachers/admin/profile").header("Authorization", bearerToken));
+
+        originalUploadDir = ReflectionTestUtils.getField(fileController, "uploadDir");
+        ReflectionTestUtils.setField(fileController, "uploadDir", uploadDir.toString());
+    }
+
+    @AfterAll
+    void restoreUploadDir() {
+        ReflectionTestUtils.setField(fileController, "uploadDir", originalUploadDir);
+    }
+
+    @Test
+    void activityListsUseOneQuery() throws Exception {
+        long total = activityRepository.count();
+        Long levelId = levelIds.get(0);
+
+        assertWithinBudget(new Budget(1 + VERSION_READ, total + VERSION_READ, total), get("/api/activities"));
+        assertWithinBudget(new Budget(1 + VERSION_READ, total + VERSION_READ, 0), get("/api/activities").param("view", "summary"));
+        assertWithinBudget(new Budget(1 + VERSION_READ, total + VERSION_READ, total), get("/api/activities").param("format", "ndjson"));
+        assertWithinBudget(new Budget(1 + VERSION_READ, 10 + VERSION_READ, 10), get("/api/activities").param("limit", "10"));
+
+        // Lista completa por nivel: se sirve del snapshot, solo se lee la versión del catálogo
+        assertWithinBudget(new Budget(VERSION_READ, VERSION_READ, 0), get("/api/activities/level/{levelId}", levelId));
+        assertWithinBudget(new Budget(1 + VERSION_READ, 10 + VERSION_READ, 10), get("/api/activities/level/{levelId}", levelId).param("limit", "10"));
+        assertWithinBudget(new Budget(1 + VERSION_READ, total + VERSION_READ, 0), get("/api/activities/level/{levelId}", levelId).param("view", "summary"));
+        assertWithinBudget(new Budget(1 + VERSION_READ, total + VERSION_READ, total), get("/api/activities/level/{levelId}", levelId).param("format", "ndjson"));
+
+        assertWithinBudget(new Budget(1 + VERSION_READ, total + VERSION_READ, total), authenticated(get("/api/activities/type/{type}", "READING")));
+        assertWithinBudget(new Budget(1 + VERSION_READ, 10 + VERSION_READ, 10), authenticated(get("/api/activities/type/{type}", "READING")).param("limit", "10"));
+        assertWithinBudget(new Budget(1 + VERSION_READ, total + VERSION_READ, 0), authenticated(get("/api/activities/type/{type}", "READING")).param("view", "summary"));
+        assertWithinBudget(new Budget(1 + VERSION_READ, total + VERSION_READ, total), authenticated(get("/api/activities/type/{type}", "READING")).param("format", "ndjson"));
+
+        String byLevelAndType = "/api/activities/level/{levelId}/type/{type}";
+        assertWithinBudget(new Budget(1 + VERSION_READ, total + VERSION_READ, total), authenticated(get(byLevelAndType, levelId, "GRAMMAR")));
+        assertWithinBudget(new Budget(1 + VERSION_READ, 3 + VERSION_READ, 3), authenticated(get(byLevelAndType, levelId, "GRAMMAR")).param("limit", "3"));
+        assertWithinBudget(new Budget(1 + VERSION_READ, total + VERSION_READ, 0), authenticated(get(byLevelAndType, levelId, "GRAMMAR")).param("view", "summary"));
+        assertWithinBudget(new Budget(1 + VERSION_READ, total + VERSION_READ, total), authenticated(get(byLevelAndType, levelId, "GRAMMAR")).param("format", "ndjson"));
+    }
+
+    @Test
+    void activityLookupAndSearchStayConstant() throws Exception {
+        Long activityId = activityRepository.findAll().get(0).getId();
+
+        assertWithinBudget(new Budget(1, 1, 1), get("/api/activities/{id}", activityId));
+        // El índice en memoria resuelve la búsqueda; solo se leen los DTO de la página
+        assertWithinBudget(new Budget(1, 50, 0), get("/api/activities/search").param("q", "practice"));
+        assertWithinBudget(new Budget(1, 10, 0), get("/api/activities/search")
+                .param("q", "practice").param("levelId", levelIds.get(1).toString()).param("limit", "10"));
+        assertWithinBudget(new Budget(0, 0, 0), authenticated(get("/api/activities/search/stats")));
+    }
+
+    @Test
+    void singleActivityWritesDoNotScaleWithCatalog() throws Exception {
+        Long levelId = levelIds.get(1);
+        long rows = activityRepository.count() + 10;
+
+        MvcResult created = assertWithinBudget(new Budget(WRITE_STATEMENTS, rows, 3),
+                authenticated(post("/api/activities")).contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(newActivity("Listening warm up", levelId, Activity.ActivityType.LISTENING))));
+        long activityId = json(created).get("id").asLong();
+
+        assertWithinBudget(new Budget(WRITE_STATEMENTS, rows, 3),
+                authenticated(put("/api/activities/{id}", activityId)).contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(newActivity("Listening warm up (v2)", levelId, Activity.ActivityType.LISTENING))));
+        assertWithinBudget(new Budget(WRITE_STATEMENTS, rows, 3),
+                authenticated(put("/api/activities/{id}/deactivate", activityId)));
+        assertWithinBudget(new Budget(WRITE_STATEMENTS, rows, 3),
+                authenticated(delete("/api/activities/{id}", activityId)));
+    }
+
+    @Test
+    void batchActivityWritesUseConstantStatements() throws Exception {
+        List<ActivityDTO> batch = new ArrayList<>();
+        for (int i = 0; i < BATCH_SIZE; i++) {
+            batch.add(newActivity("Batch reading " + i, levelIds.get(i % levelIds.size()), Activity.ActivityType.READING));
+        }
+        long rows = activityRepository.count() + 2L * BATCH_SIZE;
+
+        // Los niveles se resuelven en una consulta y los INSERT van en batches JDBC
+        MvcResult created = assertWithinBudget(new Budget(BATCH_WRITE_STATEMENTS, rows, levelIds.size()),
+                authenticated(post("/api/activities/batch")).contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(batch)));
+
+        List<ActivityDTO> updates = new ArrayList<>();
+        List<Long> ids = new ArrayList<>();
+        for (JsonNode node : json(created)) {
+            ActivityDTO activity = objectMapper.treeToValue(node, ActivityDTO.class);
+            activity.setTitle(activity.getTitle() + " (v2)");
+            updates.add(activity);
+            ids.add(activity.getId());
+        }
+        assertEquals(BATCH_SIZE, ids.size());
+
+        // Una consulta para todo el lote: a lo sumo una entidad por actividad más sus niveles.
+        // El snapshot de los niveles afectados vuelve a leer sus actividades, incluidas las recién creadas
+        long entities = BATCH_SIZE + levelIds.size();
+        rows = activityRepository.count() + BATCH_SIZE + levelIds.size() + VERSION_READ;
+        assertWithinBudget(new Budget(BATCH_WRITE_STATEMENTS, rows, entities),
+                authenticated(put("/api/activities/batch")).contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(updates)));
+        assertWithinBudget(new Budget(BATCH_WRITE_STATEMENTS, rows, entities),
+                authenticated(put("/api/activities/batch/deactivate")).contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(ids)));
+    }
+
+    @Test
+    void levelEndpointsStayWithinBudget() throws Exception {
+        // Índice de niveles: se sirve del snapshot
+        assertWithinBudget(new Budget(VERSION_READ, VERSION_READ, 0), get("/api/levels"));
+        assertWithinBudget(new Budget(1, 1, 0), get("/api/levels/{id}", levelIds.get(0)));
+        assertWithinBudget(new Budget(1, 1, 0), get("/api/levels/by-name/{name}", "Intermedio"));
+
+        long rows = levelRepository.count() + 5;
+        MvcResult created = assertWithinBudget(new Budget(6, rows, 1),
+                post("/api/levels").contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"name\":\"Conversación\",\"description\":\"Nivel de práctica oral\"}"));
+        long levelId = json(created).get("id").asLong();
+
+        assertWithinBudget(new Budget(WRITE_STATEMENTS, rows, 2),
+                put("/api/levels/{id}", levelId).contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"name\":\"Conversación\",\"description\":\"Nivel de práctica oral y escucha\"}"));
+        assertWithinBudget(new Budget(WRITE_STATEMENTS, rows, 2), delete("/api/levels/{id}", levelId));
+    }
+
+    @Test
+    void teacherEndpointsStayWithinBudget() throws Exception {
+        long teachers = teacherRepository.count();
+
+        assertWithinBudget(new Budget(1, teachers, teachers), get("/api/teachers/all"));
+        assertWithinBudget(new Budget(1, 1, 1), get("/api/teachers/{id}", teacherId));
+        // Token ya verificado: la autenticación no consulta la base
+        assertWithinBudget(new Budget(0, 0, 0), authenticated(get("/api/teachers/admin/profile")));
+
+        TeacherDTO teacher = new TeacherDTO();
+        teacher.setName("Laura");
+        teacher.setLastName("Gomez");
+        teacher.setEmail("laura.gomez@englishteacher.com");
+        teacher.setPhone("1155556666");
+        teacher.setYearsOfExperience(3);
+        teacher.setPassword("secreto123");
+        MvcResult created = assertWithinBudget(new Budget(2, 1, 0),
+                authenticated(post("/api/teachers/create")).contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(teacher)));
+        long createdId = json(created).get("teacher").get("id").asLong();
+
+        teacher.setYearsOfExperience(4);
+        teacher.setPassword(null);
+        assertWithinBudget(new Budget(4, 2, 2),
+                authenticated(put("/api/teachers/update/{id}", createdId)).contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(teacher)));
+        assertWithinBudget(new Budget(4, 2, 2), authenticated(delete("/api/teachers/delete/{id}", createdId)));
+    }
+
+    @Test
+    void authEndpointsStayWithinBudget() throws Exception {
+        // La contraseña de ejemplo ya tiene el cost factor configurado: el login no la re-hashea
+        MvcResult login = assertWithinBudget(new Budget(1, 1, 1),
+                post("/api/auth/login").contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(Map.of("email", TEACHER_EMAIL, "password", TEACHER_PASSWORD))));
+        String token = json(login).get("token").asString();
+
+        // teacherExists carga la profesora por email
+        assertWithinBudget(new Budget(1, 1, 1),
+                post("/api/auth/check-email").contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(Map.of("email", TEACHER_EMAIL))));
+        // Solo se verifica la firma del token
+        assertWithinBudget(new Budget(0, 0, 0),
+                post("/api/auth/validate-token").contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(Map.of("token", token))));
+    }
+
+    @Test
+    void fileEndpointsStayWithinBudget() throws Exception {
+        byte[] content = "%PDF-1.4 presupuesto de consultas".getBytes(StandardCharsets.UTF_8);
+
+        // La subida y la descarga trabajan solo sobre el disco
+        MvcResult uploaded = assertWithinBudget(new Budget(0, 0, 0),
+                authenticated(multipart("/api/files/upload/activity")
+                        .file(new MockMultipartFile("file", "guia.pdf", "application/pdf", content))));
+        String fileUrl = json(uploaded).get("fileUrl").asString();
+        String fileName = fileUrl.substring(fileUrl.lastIndexOf('/') + 1);
+
+        assertWithinBudget(new Budget(0, 0, 0), get("/api/files/activities/{fileName}", fileName));
+        // Borrar un archivo direccionado por contenido comprueba que ninguna actividad lo use
+        assertWithinBudget(new Budget(1, 1, 0), authenticated(delete("/api/files/activities/{fileName}", fileName)));
+    }
+
+    @Test
+    void startupTimelineDoesNotQueryTheDatabase() throws Exception {
+        assertWithinBudget(new Budget(0, 0, 0), authenticated(get("/api/startup/timeline")));
+    }
+
+    /**
+     * Ejecuta el request midiendo sentencias, filas y entidades; falla si alguna supera el presupuesto
+     */
+    private MvcResult assertWithinBudget(Budget budget, AbstractMockHttpServletRequestBuilder<?> request) throws Exception {
+        long entitiesBefore = statistics.getEntityLoadCount();
+        QueryRecorder.Report report;
+        MvcResult result;
+        QueryRecorder.start();
+        try {
+            result = mockMvc.perform(request).andReturn();
+        } finally {
+            report = QueryRecorder.stop();
+        }
+        long entities = statistics.getEntityLoadCount() - entitiesBefore;
+
+        String endpoint = result.getRequest().getMethod() + " " + result.getRequest().getRequestURI()
+                + (result.getRequest().getQueryString() != null ? "?" + result.getRequest().getQueryString() : "");
+        int status = result.getResponse().getStatus();
+        assertTrue(status < 400, endpoint + " respondió " + status + ": " + result.getResponse().getContentAsString());
+
+        String measured = report.statementCount() + " sentencias, " + report.rows() + " filas, " + entities + " entidades";
+        if (report.statementCount() > budget.statements() || report.rows() > budget.rows() || entities > budget.entities()) {
+            fail(endpoint + " excede el presupuesto " + budget + ": " + measured + "\n" + report.describe());
+        }
+        return result;
+    }
+
+    private <B extends AbstractMockHttpServletRequestBuilder<B>> B authenticated(B request) {
+        return request.header("Authorization", bearerToken);
+    }
+
+    private JsonNode json(MvcResult result) throws Exception {
+        return objectMapper.readTree(result.getResponse().getContentAsString());
+    }
+
+    private static ActivityDTO newActivity(String title, Long levelId, Activity.ActivityType type) {
+        ActivityDTO activity = new ActivityDTO();
+        activity.setTitle(title);
+        activity.setDescription("Ejercicio de " + type.name().toLowerCase() + " para el test de consultas");
+        activity.setContent("Contenido de " + title);
+        activity.setType(type);
+        activity.setLevelId(levelId);
+        activity.setIsActive(true);
+        return activity;
+    }
+}
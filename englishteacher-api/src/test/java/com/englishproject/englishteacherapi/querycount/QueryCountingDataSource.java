@@ -0,0 +1,117 @@
+package com.englishproject.englishteacherapi.querycount;
+
+import org.springframework.beans.factory.config.BeanPostProcessor;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+
+/**
+ * Envoltorio JDBC que informa a QueryRecorder cada sentencia ejecutada y cada fila leída.
+ * Se instala sobre el DataSource del contexto con el BeanPostProcessor de postProcessor(),
+ * por eso Hibernate, JdbcTemplate y los repositorios pasan todos por aquí.
+ */
+public final class QueryCountingDataSource {
+
+    private QueryCountingDataSource() {
+    }
+
+    /**
+     * BeanPostProcessor que envuelve cualquier DataSource del contexto
+     */
+    public static BeanPostProcessor postProcessor() {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                return bean instanceof DataSource dataSource ? wrap(dataSource) : bean;
+            }
+        };
+    }
+
+    public static DataSource wrap(DataSource dataSource) {
+        return proxy(DataSource.class, (proxy, method, args) -> {
+            Object result = invoke(dataSource, method, args);
+            return result instanceof Connection connection ? wrapConnection(connection) : result;
+        });
+    }
+
+    private static Connection wrapConnection(Connection connection) {
+        return proxy(Connection.class, (proxy, method, args) -> {
+            Object result = invoke(connection, method, args);
+            return switch (method.getName()) {
+                case "prepareStatement" -> wrapStatement(PreparedStatement.class, (Statement) result, (String) args[0]);
+                case "prepareCall" -> wrapStatement(CallableStatement.class, (Statement) result, (String) args[0]);
+                case "createStatement" -> wrapStatement(Statement.class, (Statement) result, null);
+                default -> result;
+            };
+        });
+    }
+
+    private static <T extends Statement> T wrapStatement(Class<T> type, Statement statement, String preparedSql) {
+        // Estado del lote pendiente hasta el próximo executeBatch
+        int[] pendingBatch = {0};
+        String[] batchSql = {preparedSql};
+        return proxy(type, (proxy, method, args) -> {
+            String name = method.getName();
+            if (name.equals("addBatch")) {
+                pendingBatch[0]++;
+                if (args != null && args.length == 1) {
+                    batchSql[0] = (String) args[0];
+                }
+            } else if (name.equals("clearBatch")) {
+                pendingBatch[0] = 0;
+            } else if (name.equals("executeBatch") || name.equals("executeLargeBatch")) {
+                QueryRecorder.statementExecuted(batchSql[0], pendingBatch[0]);
+                pendingBatch[0] = 0;
+            } else if (name.startsWith("execute")) {
+                String sql = args != null && args.length > 0 && args[0] instanceof String text ? text : preparedSql;
+                QueryRecorder.statementExecuted(sql, 1);
+            }
+
+            Object result = invoke(statement, method, args);
+            if (name.equals("executeQuery") || name.equals("getResultSet")) {
+                return result instanceof ResultSet resultSet ? wrapResultSet(resultSet) : result;
+            }
+            return result;
+        });
+    }
+
+    private static ResultSet wrapResultSet(ResultSet resultSet) {
+        return proxy(ResultSet.class, (proxy, method, args) -> {
+            Object result = invoke(resultSet, method, args);
+            if (method.getName().equals("next") && Boolean.TRUE.equals(result)) {
+                QueryRecorder.rowFetched();
+            }
+            return result;
+        });
+    }
+
+    @FunctionalInterface
+    private interface Handler {
+        Object handle(Object proxy, Method method, Object[] args) throws Throwable;
+    }
+
+    private static <T> T proxy(Class<T> type, Handler handler) {
+        return type.cast(Proxy.newProxyInstance(QueryCountingDataSource.class.getClassLoader(), new Class<?>[]{type},
+                (proxy, method, args) -> switch (method.getName()) {
+                    // Identidad del propio proxy: los pools y Spring comparan conexiones por equals
+                    case "equals" -> args != null && args.length == 1 ? proxy == args[0] : handler.handle(proxy, method, args);
+                    case "hashCode" -> args == null ? System.identityHashCode(proxy) : handler.handle(proxy, method, args);
+                    default -> handler.handle(proxy, method, args);
+                }));
+    }
+
+    private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+}
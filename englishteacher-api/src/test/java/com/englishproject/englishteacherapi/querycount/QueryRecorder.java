@@ -0,0 +1,94 @@
+package com.englishproject.englishteacherapi.querycount;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Registro de las sentencias SQL y filas leídas entre start() y stop().
+ * Solo cuenta el hilo que inició la medición: MockMvc ejecuta el request (y los
+ * callbacks afterCommit) en el hilo del test, así las tareas en segundo plano no ensucian el conteo.
+ */
+public final class QueryRecorder {
+
+    private static final String APP_PACKAGE = "com.englishproject.englishteacherapi";
+
+    /**
+     * Una ida a la base de datos; un executeBatch cuenta una vez con el tamaño del lote
+     */
+    public record ExecutedStatement(String sql, int batchSize, StackTraceElement[] stack) {
+    }
+
+    /**
+     * Resultado de una medición
+     */
+    public record Report(List<ExecutedStatement> statements, long rows) {
+
+        public int statementCount() {
+            return statements.size();
+        }
+
+        /**
+         * Cada sentencia con su SQL y la parte de la pila que pertenece a la aplicación
+         */
+        public String describe() {
+            StringBuilder description = new StringBuilder();
+            for (int i = 0; i < statements.size(); i++) {
+                ExecutedStatement statement = statements.get(i);
+                description.append("  #").append(i + 1);
+                if (statement.batchSize() > 1) {
+                    description.append(" [batch x").append(statement.batchSize()).append("]");
+                }
+                description.append(" ").append(statement.sql()).append('\n');
+                for (StackTraceElement frame : applicationFrames(statement.stack())) {
+                    description.append("      at ").append(frame).append('\n');
+                }
+            }
+            return description.toString();
+        }
+
+        private static List<StackTraceElement> applicationFrames(StackTraceElement[] stack) {
+            List<StackTraceElement> frames = Arrays.stream(stack)
+                    .filter(frame -> frame.getClassName().startsWith(APP_PACKAGE))
+                    .filter(frame -> !frame.getClassName().startsWith(QueryRecorder.class.getPackageName()))
+                    .filter(frame -> !frame.getClassName().contains("$$"))
+                    .toList();
+            // Sin frames propios (p. ej. sentencias de Hibernate en un flush) se muestra el tope de la pila
+            return frames.isEmpty() ? Arrays.asList(stack).subList(0, Math.min(15, stack.length)) : frames;
+        }
+    }
+
+    private static final List<ExecutedStatement> statements = new ArrayList<>();
+    private static long rows;
+    private static volatile Thread recordingThread;
+
+    private QueryRecorder() {
+    }
+
+    public static void start() {
+        statements.clear();
+        rows = 0;
+        recordingThread = Thread.currentThread();
+    }
+
+    public static Report stop() {
+        recordingThread = null;
+        return new Report(List.copyOf(statements), rows);
+    }
+
+    static void statementExecuted(String sql, int batchSize) {
+        if (isRecording()) {
+            statements.add(new ExecutedStatement(sql, batchSize, new Throwable().getStackTrace()));
+        }
+    }
+
+    static void rowFetched() {
+        if (isRecording()) {
+            rows++;
+        }
+    }
+
+    private static boolean isRecording() {
+        return recordingThread == Thread.currentThread();
+    }
+}
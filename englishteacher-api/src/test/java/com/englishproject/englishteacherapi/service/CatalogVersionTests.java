@@ -0,0 +1,108 @@
+package com.englishproject.englishteacherapi.service;
+
+import com.englishproject.englishteacherapi.dto.LevelDTO;
+import com.englishproject.englishteacherapi.model.Level;
+import com.englishproject.englishteacherapi.repository.LevelRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.context.WebApplicationContext;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+
+/**
+ * El ETag del catálogo sale de la base: una escritura hecha por otra réplica
+ * (simulada aquí escribiendo directo en las tablas) invalida el 304 y el snapshot local.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class CatalogVersionTests {
+
+    @Autowired
+    private WebApplicationContext context;
+
+    @Autowired
+    private LevelRepository levelRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private CatalogVersion catalogVersion;
+
+    @Autowired
+    private LevelService levelService;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    private MockMvc mockMvc;
+
+    @BeforeEach
+    void setUp() {
+        mockMvc = MockMvcBuilders.webAppContextSetup(context).build();
+    }
+
+    @Test
+    void writeOnAnotherReplicaChangesTheEtag() throws Exception {
+        MvcResult first = mockMvc.perform(get("/api/levels")).andReturn();
+        String etag = first.getResponse().getHeader("ETag");
+        assertEquals(etag, catalogVersion.etag());
+        assertEquals(304, mockMvc.perform(get("/api/levels").header("If-None-Match", etag))
+                .andReturn().getResponse().getStatus());
+
+        // Otra instancia: guarda sin pasar por LevelService y luego incrementa la versión compartida
+        Level level = new Level();
+        level.setName("Réplica");
+        level.setDescription("Nivel creado por otra instancia");
+        levelRepository.save(level);
+        jdbcTemplate.update("UPDATE catalog_version SET version = version + 1 WHERE id = 1");
+
+        MvcResult second = mockMvc.perform(get("/api/levels").header("If-None-Match", etag)).andReturn();
+        assertEquals(200, second.getResponse().getStatus());
+        assertNotEquals(etag, second.getResponse().getHeader("ETag"));
+        assertTrue(second.getResponse().getContentAsString().contains("Réplica"),
+                "El snapshot local debe descartarse cuando la versión de la base es más nueva");
+
+        levelRepository.delete(level);
+        catalogVersion.increment();
+    }
+
+    @Test
+    void incrementReturnsTheNewVersion() {
+        long before = catalogVersion.current();
+        long after = catalogVersion.increment();
+        assertEquals(before + 1, after);
+        assertEquals(after, catalogVersion.current());
+    }
+
+    @Test
+    void versionBumpCommitsOrRollsBackWithTheWrite() {
+        long before = catalogVersion.current();
+
+        // Dentro de la transacción de la escritura la versión ya avanzó; al revertirla se revierten ambas
+        Long levelId = transactionTemplate.execute(status -> {
+            LevelDTO level = levelService.createLevel(new LevelDTO(null, "Revertido", "Nivel que no se confirma", 0L));
+            assertEquals(before + 1, catalogVersion.current());
+            status.setRollbackOnly();
+            return level.getId();
+        });
+        assertEquals(before, catalogVersion.current());
+        assertFalse(levelRepository.existsById(levelId));
+
+        LevelDTO committed = levelService.createLevel(new LevelDTO(null, "Confirmado", "Nivel que se confirma", 0L));
+        assertEquals(before + 1, catalogVersion.current());
+        levelService.deleteLevel(committed.getId());
+    }
+}
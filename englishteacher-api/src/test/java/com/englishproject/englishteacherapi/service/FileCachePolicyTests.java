@@ -0,0 +1,162 @@
+package com.englishproject.englishteacherapi.service;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Cache-Control, ETag, If-None-Match, If-Modified-Since e If-Range de FileCachePolicy
+ */
+class FileCachePolicyTests {
+
+    private static final String HASH = "a".repeat(64);
+    private static final String UUID_NAME = "123e4567-e89b-12d3-a456-426614174000.png";
+    private static final long LAST_MODIFIED = 1_700_000_000_000L;
+
+    @TempDir
+    Path uploadDir;
+
+    private final FileCachePolicy fileCachePolicy = new FileCachePolicy();
+
+    @Test
+    void contentHashNameUsesTheHashAsEtagAndIsImmutable() throws Exception {
+        Path file = file(HASH + ".pdf", "contenido");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        assertFalse(fileCachePolicy.applyAndCheckNotModified(get(), response, file));
+
+        assertEquals("\"" + HASH + "\"", response.getHeader(HttpHeaders.ETAG));
+        assertTrue(response.getHeader(HttpHeaders.CACHE_CONTROL).contains("immutable"));
+        assertEquals(LAST_MODIFIED, response.getDateHeader(HttpHeaders.LAST_MODIFIED));
+    }
+
+    @Test
+    void derivativesOfAHashedFileDoNotReuseTheHashEtag() throws Exception {
+        Path thumbnail = file(HASH + ".w320.jpg", "miniatura");
+
+        String etag = fileCachePolicy.validatorsFor(thumbnail).etag();
+
+        assertNotEquals("\"" + HASH + "\"", etag);
+        assertTrue(fileCachePolicy.isImmutable(thumbnail.getFileName().toString()));
+    }
+
+    @Test
+    void uuidNameIsImmutableAndOtherNamesRevalidate() throws Exception {
+        MockHttpServletResponse uuidResponse = new MockHttpServletResponse();
+        fileCachePolicy.applyAndCheckNotModified(get(), uuidResponse, file(UUID_NAME, "imagen"));
+        assertTrue(uuidResponse.getHeader(HttpHeaders.CACHE_CONTROL).contains("immutable"));
+
+        MockHttpServletResponse plainResponse = new MockHttpServletResponse();
+        fileCachePolicy.applyAndCheckNotModified(get(), plainResponse, file("notas.txt", "texto"));
+        assertEquals("no-cache", plainResponse.getHeader(HttpHeaders.CACHE_CONTROL));
+        // Tamaño y fecha en hexadecimal
+        assertEquals("\"5-" + Long.toHexString(LAST_MODIFIED) + "\"", plainResponse.getHeader(HttpHeaders.ETAG));
+    }
+
+    @Test
+    void immutableCanBeDisabledForUrlsThatMayChange() throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        fileCachePolicy.applyAndCheckNotModified(get(), response, file(HASH + ".png", "original"), false);
+
+        assertEquals("no-cache", response.getHeader(HttpHeaders.CACHE_CONTROL));
+    }
+
+    @Test
+    void ifNoneMatchWithTheEtagIsNotModified() throws Exception {
+        Path file = file(HASH + ".pdf", "contenido");
+
+        assertNotModified(file, HttpHeaders.IF_NONE_MATCH, "\"" + HASH + "\"");
+        assertNotModified(file, HttpHeaders.IF_NONE_MATCH, "\"otro\", W/\"" + HASH + "\"");
+        assertNotModified(file, HttpHeaders.IF_NONE_MATCH, "*");
+
+        MockHttpServletRequest request = get();
+        request.addHeader(HttpHeaders.IF_NONE_MATCH, "\"otro\"");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        assertFalse(fileCachePolicy.applyAndCheckNotModified(request, response, file));
+        assertEquals(200, response.getStatus());
+    }
+
+    @Test
+    void ifNoneMatchTakesPrecedenceOverIfModifiedSince() throws Exception {
+        Path file = file(HASH + ".pdf", "contenido");
+        MockHttpServletRequest request = get();
+        request.addHeader(HttpHeaders.IF_NONE_MATCH, "\"otro\"");
+        request.addHeader(HttpHeaders.IF_MODIFIED_SINCE, LAST_MODIFIED + 60_000);
+
+        assertFalse(fileCachePolicy.applyAndCheckNotModified(request, new MockHttpServletResponse(), file));
+    }
+
+    @Test
+    void ifModifiedSinceComparesWholeSeconds() throws Exception {
+        Path file = file("notas.txt", "texto");
+
+        assertNotModified(file, HttpHeaders.IF_MODIFIED_SINCE, LAST_MODIFIED);
+
+        MockHttpServletRequest older = get();
+        older.addHeader(HttpHeaders.IF_MODIFIED_SINCE, LAST_MODIFIED - 1_000);
+        assertFalse(fileCachePolicy.applyAndCheckNotModified(older, new MockHttpServletResponse(), file));
+    }
+
+    @Test
+    void conditionalHeadersOnlyApplyToGetAndHead() throws Exception {
+        Path file = file(HASH + ".pdf", "contenido");
+        MockHttpServletRequest request = new MockHttpServletRequest("DELETE", "/api/files/activities/" + HASH + ".pdf");
+        request.addHeader(HttpHeaders.IF_NONE_MATCH, "*");
+
+        assertFalse(fileCachePolicy.applyAndCheckNotModified(request, new MockHttpServletResponse(), file));
+    }
+
+    @Test
+    void ifRangeRequiresAStrongEtagOrAnUnchangedDate() throws Exception {
+        FileCachePolicy.Validators validators = fileCachePolicy.validatorsFor(file(HASH + ".mp4", "video"));
+
+        assertTrue(fileCachePolicy.isRangeAllowed(get(), validators));
+        assertTrue(fileCachePolicy.isRangeAllowed(withHeader(HttpHeaders.IF_RANGE, "\"" + HASH + "\""), validators));
+        assertFalse(fileCachePolicy.isRangeAllowed(withHeader(HttpHeaders.IF_RANGE, "W/\"" + HASH + "\""), validators));
+        assertFalse(fileCachePolicy.isRangeAllowed(withHeader(HttpHeaders.IF_RANGE, "\"otro\""), validators));
+
+        MockHttpServletRequest sameDate = get();
+        sameDate.addHeader(HttpHeaders.IF_RANGE, LAST_MODIFIED);
+        assertTrue(fileCachePolicy.isRangeAllowed(sameDate, validators));
+
+        MockHttpServletRequest olderDate = get();
+        olderDate.addHeader(HttpHeaders.IF_RANGE, LAST_MODIFIED - 1_000);
+        assertFalse(fileCachePolicy.isRangeAllowed(olderDate, validators));
+    }
+
+    private void assertNotModified(Path file, String header, Object value) throws Exception {
+        MockHttpServletRequest request = get();
+        request.addHeader(header, value);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        assertTrue(fileCachePolicy.applyAndCheckNotModified(request, response, file), header + ": " + value);
+        assertEquals(304, response.getStatus());
+    }
+
+    private Path file(String name, String content) throws Exception {
+        Path file = Files.writeString(uploadDir.resolve(name), content);
+        Files.setLastModifiedTime(file, FileTime.fromMillis(LAST_MODIFIED));
+        return file;
+    }
+
+    private static MockHttpServletRequest get() {
+        return new MockHttpServletRequest("GET", "/api/files/activities/archivo");
+    }
+
+    private static MockHttpServletRequest withHeader(String name, String value) {
+        MockHttpServletRequest request = get();
+        request.addHeader(name, value);
+        return request;
+    }
+}
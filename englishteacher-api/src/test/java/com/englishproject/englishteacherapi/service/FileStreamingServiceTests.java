@@ -0,0 +1,158 @@
+package com.englishproject.englishteacherapi.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Respuestas de FileStreamingService para Range, If-Range y HEAD.
+ * MockHttpServletRequest no anuncia sendfile, así que los bytes se escriben en el cuerpo.
+ */
+class FileStreamingServiceTests {
+
+    private static final String CONTENT = "0123456789abcdefghij";
+    private static final String CONTENT_TYPE = "text/plain";
+
+    @TempDir
+    Path uploadDir;
+
+    private FileStreamingService fileStreamingService;
+    private FileCachePolicy fileCachePolicy;
+    private Path file;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        fileStreamingService = new FileStreamingService();
+        ReflectionTestUtils.setField(fileStreamingService, "metricsRegistry", new MetricsRegistry());
+        fileStreamingService.initMetrics();
+        fileCachePolicy = new FileCachePolicy();
+        file = Files.writeString(uploadDir.resolve("notas.txt"), CONTENT);
+    }
+
+    @Test
+    void withoutRangeSendsTheWholeFile() throws Exception {
+        MockHttpServletResponse response = send(get(null), true);
+
+        assertEquals(200, response.getStatus());
+        assertEquals("bytes", response.getHeader(HttpHeaders.ACCEPT_RANGES));
+        assertEquals(CONTENT.length(), response.getContentLengthLong());
+        assertEquals(CONTENT, response.getContentAsString());
+    }
+
+    @Test
+    void singleRangeIsPartialContent() throws Exception {
+        MockHttpServletResponse response = send(get("bytes=2-5"), true);
+
+        assertEquals(206, response.getStatus());
+        assertEquals("bytes 2-5/20", response.getHeader(HttpHeaders.CONTENT_RANGE));
+        assertEquals(4, response.getContentLengthLong());
+        assertEquals("2345", response.getContentAsString());
+    }
+
+    @Test
+    void suffixRangeSendsTheLastBytes() throws Exception {
+        MockHttpServletResponse response = send(get("bytes=-3"), true);
+
+        assertEquals(206, response.getStatus());
+        assertEquals("bytes 17-19/20", response.getHeader(HttpHeaders.CONTENT_RANGE));
+        assertEquals("hij", response.getContentAsString());
+    }
+
+    @Test
+    void multipleRangesAreSentAsMultipart() throws Exception {
+        MockHttpServletResponse response = send(get("bytes=0-1,10-12"), true);
+
+        assertEquals(206, response.getStatus());
+        assertTrue(response.getContentType().startsWith("multipart/byteranges; boundary="));
+        String body = response.getContentAsString();
+        assertTrue(body.contains("Content-Range: bytes 0-1/20\r\n\r\n01"));
+        assertTrue(body.contains("Content-Range: bytes 10-12/20\r\n\r\nabc"));
+    }
+
+    @Test
+    void unsatisfiableRangeIs416() throws Exception {
+        MockHttpServletResponse response = send(get("bytes=50-60"), true);
+
+        assertEquals(416, response.getStatus());
+        assertEquals("bytes */20", response.getHeader(HttpHeaders.CONTENT_RANGE));
+        assertEquals(0, response.getContentAsByteArray().length);
+
+        // HttpRange.parseRanges rechaza más de 100 rangos
+        String tooManyRanges = "bytes=" + "0-0,".repeat(101) + "0-0";
+        assertEquals(416, send(get(tooManyRanges), true).getStatus());
+    }
+
+    @Test
+    void overlappingRangesLargerThanTheFileSendItOnce() throws Exception {
+        MockHttpServletResponse response = send(get("bytes=0-,0-,0-,0-"), true);
+
+        assertEquals(200, response.getStatus());
+        assertNull(response.getHeader(HttpHeaders.CONTENT_RANGE));
+        assertEquals(CONTENT, response.getContentAsString());
+    }
+
+    @Test
+    void ifRangeWithAnotherEtagIgnoresRange() throws Exception {
+        MockHttpServletRequest request = get("bytes=2-5");
+        request.addHeader(HttpHeaders.IF_RANGE, "\"otra-version\"");
+        MockHttpServletResponse response = send(request, fileCachePolicy.isRangeAllowed(request, fileCachePolicy.validatorsFor(file)));
+
+        assertEquals(200, response.getStatus());
+        assertEquals(CONTENT, response.getContentAsString());
+    }
+
+    @Test
+    void ifRangeWithTheCurrentEtagHonorsRange() throws Exception {
+        MockHttpServletRequest request = get("bytes=2-5");
+        request.addHeader(HttpHeaders.IF_RANGE, fileCachePolicy.validatorsFor(file).etag());
+        MockHttpServletResponse response = send(request, fileCachePolicy.isRangeAllowed(request, fileCachePolicy.validatorsFor(file)));
+
+        assertEquals(206, response.getStatus());
+        assertEquals("2345", response.getContentAsString());
+    }
+
+    @Test
+    void headSendsHeadersWithoutBody() throws Exception {
+        MockHttpServletRequest request = get("bytes=2-5");
+        request.setMethod("HEAD");
+        MockHttpServletResponse response = send(request, true);
+
+        assertEquals(206, response.getStatus());
+        assertEquals(4, response.getContentLengthLong());
+        assertEquals(0, response.getContentAsByteArray().length);
+
+        MockHttpServletRequest fullHead = get(null);
+        fullHead.setMethod("HEAD");
+        MockHttpServletResponse fullResponse = send(fullHead, true);
+        assertEquals(200, fullResponse.getStatus());
+        assertEquals(CONTENT.length(), fullResponse.getContentLengthLong());
+        assertEquals(0, fullResponse.getContentAsByteArray().length);
+    }
+
+    private MockHttpServletRequest get(String range) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/files/activities/notas.txt");
+        if (range != null) {
+            request.addHeader(HttpHeaders.RANGE, range);
+        }
+        return request;
+    }
+
+    private MockHttpServletResponse send(MockHttpServletRequest request, boolean rangeAllowed) throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        fileStreamingService.send(request, response, file, CONTENT_TYPE, rangeAllowed);
+        return response;
+    }
+}
@@ -0,0 +1,102 @@
+package com.englishproject.englishteacherapi.service;
+
+import com.englishproject.englishteacherapi.dto.ActivityDTO;
+import com.englishproject.englishteacherapi.dto.LevelDTO;
+import com.englishproject.englishteacherapi.dto.SearchCursor;
+import com.englishproject.englishteacherapi.dto.SearchPage;
+import com.englishproject.englishteacherapi.model.Activity;
+import com.englishproject.englishteacherapi.repository.ActivityRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Índice en memoria (app.search.engine=memory en el perfil de tests) frente a escrituras
+ * que no pasan por ActivityService
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class InMemoryActivityIndexTests {
+
+    @Autowired
+    private InMemoryActivityIndex inMemoryActivityIndex;
+
+    @Autowired
+    private ActivityService activityService;
+
+    @Autowired
+    private LevelService levelService;
+
+    @Autowired
+    private ActivityRepository activityRepository;
+
+    @Test
+    void deletingALevelRemovesItsActivitiesFromTheIndex() {
+        LevelDTO level = levelService.createLevel(new LevelDTO(null, "Nivel temporal", "Se elimina en el test", null));
+        activityService.createActivities(List.of(
+                newActivity("Zeppelin story one", level.getId()),
+                newActivity("Zeppelin story two", level.getId())));
+        assertEquals(2, search("zeppelin", 10).hits().size());
+        int liveBefore = liveDocuments();
+
+        assertTrue(levelService.deleteLevel(level.getId()));
+
+        assertEquals(0, search("zeppelin", 10).hits().size());
+        // Sin la baja explícita las actividades seguirían vivas en el índice y solo se filtrarían al cargar
+        assertEquals(liveBefore - 2, liveDocuments());
+    }
+
+    @Test
+    void nextCursorComesFromTheRankingEvenIfAnActivityDisappears() {
+        Long levelId = levelService.getAllLevels().get(0).getId();
+        List<ActivityDTO> activities = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            activities.add(newActivity("Quokka reading " + i, levelId));
+        }
+        List<ActivityDTO> created = activityService.createActivities(activities);
+
+        SearchPage firstPage = search("quokka", 2);
+        // Borrado directo en la base: el índice todavía la rankea pero ya no se puede cargar
+        activityRepository.deleteById(firstPage.hits().get(0).activity().getId());
+
+        SearchPage page = search("quokka", 2);
+        assertEquals(1, page.hits().size());
+        assertNotNull(page.next(), "Una página con un resultado faltante no es la última");
+
+        int seen = page.hits().size();
+        while (page.next() != null) {
+            page = inMemoryActivityIndex.search("quokka", null, null, page.next(), 2);
+            seen += page.hits().size();
+        }
+        assertEquals(created.size() - 1, seen);
+        assertNull(page.next());
+    }
+
+    private SearchPage search(String query, int limit) {
+        return inMemoryActivityIndex.search(query, null, null, SearchCursor.FIRST, limit);
+    }
+
+    private int liveDocuments() {
+        return (int) inMemoryActivityIndex.footprint().get("liveDocuments");
+    }
+
+    private static ActivityDTO newActivity(String title, Long levelId) {
+        ActivityDTO activity = new ActivityDTO();
+        activity.setTitle(title);
+        activity.setDescription("Actividad para el test del índice de búsqueda");
+        activity.setContent("Contenido de " + title);
+        activity.setType(Activity.ActivityType.READING);
+        activity.setLevelId(levelId);
+        activity.setIsActive(true);
+        return activity;
+    }
+}
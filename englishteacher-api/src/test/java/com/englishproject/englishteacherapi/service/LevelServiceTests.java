@@ -0,0 +1,101 @@
+package com.englishproject.englishteacherapi.service;
+
+import com.englishproject.englishteacherapi.dto.ActivityDTO;
+import com.englishproject.englishteacherapi.dto.LevelDTO;
+import com.englishproject.englishteacherapi.model.Activity;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Los conteos de actividades por nivel salen de una única consulta agrupada
+ * (LevelRepository.findAllWithActiveActivitiesCount), sin hidratar actividades.
+ * Se llama al servicio directamente: GET /api/levels normalmente se sirve del snapshot.
+ * Las actividades creadas se borran en @AfterEach: la base H2 es compartida por todas las clases
+ * de test y los presupuestos de EndpointQueryBudgetTests dependen de la cantidad de filas.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class LevelServiceTests {
+
+    @Autowired
+    private LevelService levelService;
+
+    @Autowired
+    private ActivityService activityService;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+    private final List<Long> createdActivityIds = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        assertTrue(statistics.isStatisticsEnabled(), "Se requiere hibernate.generate_statistics=true");
+    }
+
+    @AfterEach
+    void deleteCreatedActivities() {
+        // Borrado explícito en lugar de rollback: createActivities confirma su propia transacción
+        createdActivityIds.forEach(activityService::deleteActivity);
+        createdActivityIds.clear();
+    }
+
+    @Test
+    void getAllLevelsRunsOneQuery() {
+        // Varias actividades por nivel: un N+1 se notaría en la cantidad de sentencias
+        List<LevelDTO> seeded = levelService.getAllLevels();
+        List<ActivityDTO> activities = new ArrayList<>();
+        for (LevelDTO level : seeded) {
+            for (int i = 0; i < 3; i++) {
+                activities.add(newActivity("Level count " + level.getId() + "-" + i, level.getId()));
+            }
+        }
+        activityService.createActivities(activities).forEach(created -> createdActivityIds.add(created.getId()));
+
+        statistics.clear();
+        List<LevelDTO> levels = levelService.getAllLevels();
+
+        assertEquals(seeded.size(), levels.size());
+        assertTrue(levels.stream().allMatch(level -> level.getActivitiesCount() >= 3));
+        assertEquals(1, statistics.getPrepareStatementCount(), "Una sola sentencia para niveles y conteos");
+        assertEquals(0, statistics.getEntityLoadCount(), "La proyección no debe hidratar entidades");
+        assertEquals(0, statistics.getCollectionFetchCount(), "No se deben cargar colecciones de actividades");
+    }
+
+    @Test
+    void getLevelByIdRunsOneQuery() {
+        Long levelId = levelService.getAllLevels().get(0).getId();
+
+        statistics.clear();
+        assertTrue(levelService.getLevelById(levelId).isPresent());
+
+        assertEquals(1, statistics.getPrepareStatementCount());
+        assertEquals(0, statistics.getEntityLoadCount());
+    }
+
+    private static ActivityDTO newActivity(String title, Long levelId) {
+        ActivityDTO activity = new ActivityDTO();
+        activity.setTitle(title);
+        activity.setDescription("Actividad para el test de conteos por nivel");
+        activity.setContent("Contenido de " + title);
+        activity.setType(Activity.ActivityType.VOCABULARY);
+        activity.setLevelId(levelId);
+        activity.setIsActive(true);
+        return activity;
+    }
+}
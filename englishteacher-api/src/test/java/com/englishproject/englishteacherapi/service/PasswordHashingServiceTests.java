@@ -0,0 +1,120 @@
+package com.englishproject.englishteacherapi.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Pool acotado de BCrypt: cost factor, rechazo al saturarse y tiempo de espera máximo.
+ * Se usa strength 4 (el mínimo de BCrypt) para que los tests sean rápidos.
+ */
+class PasswordHashingServiceTests {
+
+    private static final int STRENGTH = 4;
+
+    private PasswordHashingService service;
+
+    @AfterEach
+    void tearDown() {
+        if (service != null) {
+            service.shutdown();
+        }
+    }
+
+    @Test
+    void hashMatchesAndUsesTheConfiguredCost() {
+        service = new PasswordHashingService(STRENGTH, 1, 1, 5_000, new MetricsRegistry());
+
+        String hash = service.hash("secreto123");
+
+        assertTrue(hash.startsWith("$2a$04$"));
+        assertTrue(service.matches("secreto123", hash));
+        assertFalse(service.matches("incorrecta", hash));
+        assertFalse(service.matches(null, hash));
+        assertFalse(service.matches("secreto123", null));
+    }
+
+    @Test
+    void needsRehashWhenTheCostDiffers() {
+        service = new PasswordHashingService(STRENGTH, 1, 1, 5_000, new MetricsRegistry());
+
+        assertFalse(service.needsRehash(service.hash("secreto123")));
+        assertFalse(service.needsRehash("$2a$04$abcdefghijklmnopqrstuu"));
+        assertTrue(service.needsRehash("$2a$10$abcdefghijklmnopqrstuu"));
+        assertTrue(service.needsRehash("$2b$12$abcdefghijklmnopqrstuu"));
+        assertTrue(service.needsRehash("$2y$10$abcdefghijklmnopqrstuu"));
+        assertFalse(service.needsRehash("texto-plano"), "Un valor que no es BCrypt no se interpreta");
+        assertFalse(service.needsRehash(null));
+    }
+
+    @Test
+    void saturatedPoolRejectsImmediately() throws Exception {
+        // Un hilo y una cola de un lugar: la tercera tarea no entra
+        service = new PasswordHashingService(STRENGTH, 1, 1, 5_000, new MetricsRegistry());
+        CountDownLatch release = new CountDownLatch(1);
+        CompletableFuture<Object> running = CompletableFuture.supplyAsync(() -> service.runBounded(() -> release.await(5, TimeUnit.SECONDS)));
+        CompletableFuture<Object> queued = CompletableFuture.supplyAsync(() -> service.runBounded(() -> release.await(5, TimeUnit.SECONDS)));
+        awaitSaturation();
+
+        long start = System.nanoTime();
+        assertThrows(RejectedExecutionException.class, () -> service.hash("secreto123"));
+        assertTrue(System.nanoTime() - start < TimeUnit.SECONDS.toNanos(1), "El rechazo no debe esperar");
+
+        release.countDown();
+        assertEquals(true, running.get(5, TimeUnit.SECONDS));
+        assertEquals(true, queued.get(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void waitingLongerThanTheLimitIsRejectedAndCancelsTheTask() {
+        service = new PasswordHashingService(STRENGTH, 1, 1, 100, new MetricsRegistry());
+        CountDownLatch interrupted = new CountDownLatch(1);
+
+        RejectedExecutionException rejected = assertThrows(RejectedExecutionException.class, () -> service.runBounded(() -> {
+            try {
+                Thread.sleep(TimeUnit.SECONDS.toMillis(5));
+            } catch (InterruptedException e) {
+                interrupted.countDown();
+            }
+            return null;
+        }));
+
+        assertInstanceOf(TimeoutException.class, rejected.getCause());
+        assertTrue(awaitQuietly(interrupted), "La tarea vencida se cancela e interrumpe su hilo");
+        // El pool queda libre para la siguiente verificación
+        assertTrue(service.matches("secreto123", service.hash("secreto123")));
+    }
+
+    private void awaitSaturation() throws InterruptedException {
+        ThreadPoolExecutor executor = (ThreadPoolExecutor) ReflectionTestUtils.getField(service, "executor");
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (executor.getActiveCount() < 1 || executor.getQueue().remainingCapacity() > 0) {
+            if (System.nanoTime() > deadline) {
+                throw new IllegalStateException("El pool no llegó a saturarse");
+            }
+            Thread.sleep(5);
+        }
+    }
+
+    private static boolean awaitQuietly(CountDownLatch latch) {
+        try {
+            return latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+}
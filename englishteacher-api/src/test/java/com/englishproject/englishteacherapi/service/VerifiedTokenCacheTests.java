@@ -0,0 +1,103 @@
+package com.englishproject.englishteacherapi.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+/**
+ * Aciertos, expiración (del token y del TTL), vaciado por tamaño e invalidación por email,
+ * con un reloj controlado por el test
+ */
+class VerifiedTokenCacheTests {
+
+    private static final long TTL_MILLIS = 30_000;
+    private static final int MAX_ENTRIES = 3;
+    private static final String EMAIL = "paz.valdez@englishteacher.com";
+
+    private final AtomicLong now = new AtomicLong(1_000_000);
+    private VerifiedTokenCache cache;
+
+    @BeforeEach
+    void setUp() {
+        cache = new VerifiedTokenCache(TTL_MILLIS, MAX_ENTRIES, now::get);
+    }
+
+    @Test
+    void hitReturnsTheEmail() {
+        cache.put("token-a", EMAIL, now.get() + 60_000);
+
+        assertEquals(EMAIL, cache.getEmail("token-a"));
+    }
+
+    @Test
+    void missReturnsNull() {
+        cache.put("token-a", EMAIL, now.get() + 60_000);
+
+        assertNull(cache.getEmail("token-b"));
+    }
+
+    @Test
+    void entryExpiresWithTheToken() {
+        cache.put("token-a", EMAIL, now.get() + 5_000);
+
+        now.addAndGet(4_999);
+        assertEquals(EMAIL, cache.getEmail("token-a"));
+        now.addAndGet(1);
+        assertNull(cache.getEmail("token-a"));
+    }
+
+    @Test
+    void entryExpiresWithTheTtlBeforeTheToken() {
+        // Token válido por 30 minutos: en cache solo hasta el TTL
+        cache.put("token-a", EMAIL, now.get() + 1_800_000);
+
+        now.addAndGet(TTL_MILLIS - 1);
+        assertEquals(EMAIL, cache.getEmail("token-a"));
+        now.addAndGet(1);
+        assertNull(cache.getEmail("token-a"));
+    }
+
+    @Test
+    void fullCacheDropsExpiredEntriesFirst() {
+        cache.put("token-a", EMAIL, now.get() + 1_000);
+        cache.put("token-b", EMAIL, now.get() + 60_000);
+        cache.put("token-c", EMAIL, now.get() + 60_000);
+        now.addAndGet(1_000);
+
+        cache.put("token-d", EMAIL, now.get() + 60_000);
+
+        assertNull(cache.getEmail("token-a"));
+        assertEquals(EMAIL, cache.getEmail("token-b"));
+        assertEquals(EMAIL, cache.getEmail("token-d"));
+    }
+
+    @Test
+    void fullCacheWithoutExpiredEntriesIsCleared() {
+        cache.put("token-a", EMAIL, now.get() + 60_000);
+        cache.put("token-b", EMAIL, now.get() + 60_000);
+        cache.put("token-c", EMAIL, now.get() + 60_000);
+
+        cache.put("token-d", EMAIL, now.get() + 60_000);
+
+        assertNull(cache.getEmail("token-a"));
+        assertNull(cache.getEmail("token-c"));
+        assertEquals(EMAIL, cache.getEmail("token-d"));
+    }
+
+    @Test
+    void evictByEmailRemovesOnlyThatTeacher() {
+        cache.put("token-a", EMAIL, now.get() + 60_000);
+        cache.put("token-b", EMAIL, now.get() + 60_000);
+        cache.put("token-c", "otro@englishteacher.com", now.get() + 60_000);
+
+        cache.evictByEmail(EMAIL);
+
+        assertNull(cache.getEmail("token-a"));
+        assertNull(cache.getEmail("token-b"));
+        assertEquals("otro@englishteacher.com", cache.getEmail("token-c"));
+    }
+}
@@ -0,0 +1,117 @@
+package com.englishproject.englishteacherapi.benchmarks;
+
+import com.englishproject.englishteacherapi.model.Activity;
+import com.englishproject.englishteacherapi.model.Level;
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+import org.hibernate.Transaction;
+import org.hibernate.cfg.Configuration;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Alta de N actividades con el mapeo real de Activity y la configuración de batching de
+ * application.properties (secuencia pooled, jdbc.batch_size=50, order_inserts):
+ * - single: una transacción por actividad, como N llamadas a POST /api/activities
+ * - batch: todas en una transacción, como POST /api/activities/batch
+ * Por defecto usa H2 en memoria, que no tiene latencia de red y subestima la diferencia.
+ * Para medir contra PostgreSQL (con reWriteBatchedInserts, como la aplicación):
+ *   java -Djdbc.url=jdbc:postgresql://localhost:5432/bench -Djdbc.user=... -Djdbc.password=... \
+ *        -jar target/benchmarks.jar ActivityInsertBenchmark
+ * La tabla se crea y se borra en cada corrida (hbm2ddl create-drop): usar una base descartable.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ActivityInsertBenchmark {
+
+    @Param({"single", "batch"})
+    private String mode;
+
+    @Param({"100", "1000"})
+    private int activities;
+
+    private SessionFactory sessionFactory;
+    private List<Level> levels;
+    private long nextId;
+
+    @Setup
+    public void setUp() {
+        String url = System.getProperty("jdbc.url", "jdbc:h2:mem:insert_benchmark;MODE=PostgreSQL;DB_CLOSE_DELAY=-1");
+        Configuration configuration = new Configuration()
+                .addAnnotatedClass(Level.class)
+                .addAnnotatedClass(Activity.class)
+                .setProperty("hibernate.connection.url", url)
+                .setProperty("hibernate.connection.username", System.getProperty("jdbc.user", "sa"))
+                .setProperty("hibernate.connection.password", System.getProperty("jdbc.password", ""))
+                .setProperty("hibernate.connection.reWriteBatchedInserts", "true")
+                .setProperty("hibernate.hbm2ddl.auto", "create-drop")
+                .setProperty("hibernate.jdbc.batch_size", "50")
+                .setProperty("hibernate.order_inserts", "true")
+                .setProperty("hibernate.cache.use_second_level_cache", "false")
+                .setProperty("hibernate.cache.use_query_cache", "false");
+        sessionFactory = configuration.buildSessionFactory();
+
+        levels = new ArrayList<>();
+        sessionFactory.inTransaction(session -> {
+            for (Level level : Fixtures.levels()) {
+                level.setId(null);
+                session.persist(level);
+                levels.add(level);
+            }
+        });
+    }
+
+    @TearDown
+    public void tearDown() {
+        sessionFactory.close();
+    }
+
+    @Benchmark
+    public int insert() {
+        List<Activity> batch = newActivities();
+        if (mode.equals("single")) {
+            for (Activity activity : batch) {
+                sessionFactory.inTransaction(session -> session.persist(activity));
+            }
+        } else {
+            try (Session session = sessionFactory.openSession()) {
+                Transaction transaction = session.beginTransaction();
+                batch.forEach(session::persist);
+                transaction.commit();
+            }
+        }
+        return batch.size();
+    }
+
+    private List<Activity> newActivities() {
+        Random random = new Random(nextId);
+        List<Activity> batch = new ArrayList<>(activities);
+        for (int i = 0; i < activities; i++) {
+            long id = ++nextId;
+            Activity activity = Fixtures.activity(id, levels.get((int) (id % levels.size())), random);
+            // El id lo asigna la secuencia, igual que en ActivityService
+            activity.setId(null);
+            batch.add(activity);
+        }
+        return batch;
+    }
+}
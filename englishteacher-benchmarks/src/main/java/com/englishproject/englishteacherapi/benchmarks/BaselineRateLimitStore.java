@@ -0,0 +1,44 @@
+package com.englishproject.englishteacherapi.benchmarks;
+
+import com.englishproject.englishteacherapi.config.RateLimitStore;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Copia del limitador original de RateLimitingFilter (lista de timestamps por clave en un
+ * CopyOnWriteArrayList, recortada con removeIf dentro de ConcurrentHashMap.compute).
+ * Solo existe como línea de base para RateLimitingFilterBenchmark.
+ */
+final class BaselineRateLimitStore implements RateLimitStore {
+
+    private final Map<String, RequestCounter> requestCounters = new ConcurrentHashMap<>();
+
+    @Override
+    public boolean tryConsume(String key, int maxRequests, long windowNanos) {
+        long currentTime = System.currentTimeMillis();
+        long windowStart = currentTime - TimeUnit.NANOSECONDS.toMillis(windowNanos);
+
+        RequestCounter counter = requestCounters.compute(key, (k, v) -> {
+            if (v == null) {
+                v = new RequestCounter();
+            }
+            // Limpiar requests fuera de la ventana
+            v.requests.removeIf(timestamp -> timestamp < windowStart);
+            // Agregar request actual
+            v.requests.add(currentTime);
+            v.lastAccess = currentTime;
+            return v;
+        });
+
+        return counter.requests.size() <= maxRequests;
+    }
+
+    private static final class RequestCounter {
+        private final List<Long> requests = new CopyOnWriteArrayList<>();
+        private volatile long lastAccess = System.currentTimeMillis();
+    }
+}
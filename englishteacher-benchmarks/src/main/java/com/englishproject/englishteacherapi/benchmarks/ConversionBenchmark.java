@@ -0,0 +1,78 @@
+package com.englishproject.englishteacherapi.benchmarks;
+
+import com.englishproject.englishteacherapi.dto.ActivityDTO;
+import com.englishproject.englishteacherapi.dto.LevelDTO;
+import com.englishproject.englishteacherapi.model.Activity;
+import com.englishproject.englishteacherapi.model.Level;
+import com.englishproject.englishteacherapi.service.ActivityService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Conversión entidad -> DTO de ActivityService (método privado, invocado con un MethodHandle).
+ * LevelService ya no convierte entidades: LevelDTO sale de una proyección JPQL,
+ * así que para niveles se mide solo la construcción del DTO que hace Hibernate.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class ConversionBenchmark {
+
+    private static final MethodHandle CONVERT_TO_DTO;
+
+    static {
+        try {
+            CONVERT_TO_DTO = MethodHandles.privateLookupIn(ActivityService.class, MethodHandles.lookup())
+                    .findVirtual(ActivityService.class, "convertToDTO",
+                            MethodType.methodType(ActivityDTO.class, Activity.class));
+        } catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    private ActivityService activityService;
+    private Activity[] activities;
+    private Level level;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        activityService = new ActivityService();
+        List<Level> levels = Fixtures.levels();
+        level = levels.get(0);
+        Random random = new Random(42);
+        activities = new Activity[1024];
+        for (int i = 0; i < activities.length; i++) {
+            activities[i] = Fixtures.activity(i + 1, levels.get(i % levels.size()), random);
+        }
+    }
+
+    @Benchmark
+    public ActivityDTO activityConvertToDTO() throws Throwable {
+        Activity activity = activities[next++ & (activities.length - 1)];
+        return (ActivityDTO) CONVERT_TO_DTO.invokeExact(activityService, activity);
+    }
+
+    @Benchmark
+    public LevelDTO levelProjection() {
+        return new LevelDTO(level.getId(), level.getName(), level.getDescription(), 12L);
+    }
+}
@@ -0,0 +1,68 @@
+package com.englishproject.englishteacherapi.benchmarks;
+
+import com.englishproject.englishteacherapi.controller.FileController;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * FileController.isSecureFilePath (privado) con nombres válidos y ataques típicos
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class FilePathValidationBenchmark {
+
+    private static final MethodHandle IS_SECURE_FILE_PATH;
+
+    static {
+        try {
+            IS_SECURE_FILE_PATH = MethodHandles.privateLookupIn(FileController.class, MethodHandles.lookup())
+                    .findVirtual(FileController.class, "isSecureFilePath",
+                            MethodType.methodType(boolean.class, String.class, String.class));
+        } catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    private FileController fileController;
+
+    @Setup
+    public void setUp() {
+        fileController = new FileController();
+        ReflectionTestUtils.setField(fileController, "uploadDir", "uploads");
+    }
+
+    @Benchmark
+    public boolean uuidName() throws Throwable {
+        return (boolean) IS_SECURE_FILE_PATH.invokeExact(fileController,
+                "3f2b8c1e-9a4d-4e7b-8f1a-2c6d5e4b3a21.pdf", "activities");
+    }
+
+    @Benchmark
+    public boolean contentHashName() throws Throwable {
+        return (boolean) IS_SECURE_FILE_PATH.invokeExact(fileController,
+                "9f86d081884c7d659a2feaa0c55ad015a3bf4f1b2b0b822cd15d6c15b0f00a08.w320.jpg", "activities");
+    }
+
+    @Benchmark
+    public boolean traversalAttempt() throws Throwable {
+        return (boolean) IS_SECURE_FILE_PATH.invokeExact(fileController, "..%2F..%2Fetc%2Fpasswd", "activities");
+    }
+}
@@ -0,0 +1,102 @@
+package com.englishproject.englishteacherapi.benchmarks;
+
+import com.englishproject.englishteacherapi.dto.ActivityDTO;
+import com.englishproject.englishteacherapi.dto.ActivitySummaryDTO;
+import com.englishproject.englishteacherapi.model.Activity;
+import com.englishproject.englishteacherapi.model.Level;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Datos en memoria con la forma del catálogo real (textos de largo similar, tipos y niveles repartidos)
+ */
+final class Fixtures {
+
+    private static final String[] WORDS = {
+            "grammar", "vocabulary", "reading", "listening", "present", "perfect", "past", "simple",
+            "continuous", "phrasal", "verbs", "conditionals", "passive", "voice", "idioms", "travel",
+            "business", "email", "interview", "pronunciation", "story", "song", "canción", "ejercicio",
+            "práctica", "examen", "comprensión", "lectura", "escritura", "diálogo", "family", "food"
+    };
+    private static final Activity.ActivityType[] TYPES = Activity.ActivityType.values();
+    private static final LocalDateTime BASE_TIME = LocalDateTime.of(2024, 3, 1, 10, 0);
+
+    private Fixtures() {
+    }
+
+    static List<Level> levels() {
+        List<Level> levels = new ArrayList<>();
+        String[] names = {"Básico", "Intermedio", "Avanzado"};
+        for (int i = 0; i < names.length; i++) {
+            levels.add(new Level((long) i + 1, names[i], "Nivel " + names[i], null));
+        }
+        return levels;
+    }
+
+    static Activity activity(long id, Level level, Random random) {
+        Activity activity = new Activity();
+        activity.setId(id);
+        activity.setTitle(text(random, 4));
+        activity.setDescription(text(random, 20));
+        activity.setContent(text(random, 150));
+        activity.setType(TYPES[(int) (id % TYPES.length)]);
+        activity.setResourceFileUrl(id % 3 == 0 ? "/api/files/activities/" + id + ".pdf" : null);
+        activity.setResourceFileName(id % 3 == 0 ? "material-" + id + ".pdf" : null);
+        activity.setLevel(level);
+        activity.setIsActive(true);
+        activity.setCreatedAt(BASE_TIME.plusMinutes(id));
+        activity.setUpdatedAt(BASE_TIME.plusMinutes(id));
+        return activity;
+    }
+
+    static ActivityDTO activityDTO(long id, Random random) {
+        return new ActivityDTO(
+                id,
+                text(random, 4),
+                text(random, 20),
+                text(random, 150),
+                TYPES[(int) (id % TYPES.length)],
+                id % 3 == 0 ? "/api/files/activities/" + id + ".pdf" : null,
+                id % 3 == 0 ? "material-" + id + ".pdf" : null,
+                id % 3 + 1,
+                true,
+                BASE_TIME.plusMinutes(id),
+                BASE_TIME.plusMinutes(id));
+    }
+
+    static List<ActivityDTO> activityDTOs(int count) {
+        Random random = new Random(42);
+        List<ActivityDTO> activities = new ArrayList<>(count);
+        for (int i = 1; i <= count; i++) {
+            activities.add(activityDTO(i, random));
+        }
+        return activities;
+    }
+
+    /**
+     * Las mismas actividades en la vista resumida (?view=summary): sin description ni content
+     */
+    static List<ActivitySummaryDTO> activitySummaries(List<ActivityDTO> activities) {
+        List<ActivitySummaryDTO> summaries = new ArrayList<>(activities.size());
+        for (ActivityDTO activity : activities) {
+            summaries.add(new ActivitySummaryDTO(activity.getId(), activity.getTitle(), activity.getType(),
+                    activity.getResourceFileUrl(), activity.getResourceFileName(), activity.getLevelId(),
+                    activity.getIsActive(), activity.getCreatedAt(), activity.getUpdatedAt()));
+        }
+        return summaries;
+    }
+
+    private static String text(Random random, int words) {
+        StringBuilder text = new StringBuilder();
+        for (int i = 0; i < words; i++) {
+            if (i > 0) {
+                text.append(' ');
+            }
+            text.append(WORDS[random.nextInt(WORDS.length)]);
+        }
+        return text.toString();
+    }
+}
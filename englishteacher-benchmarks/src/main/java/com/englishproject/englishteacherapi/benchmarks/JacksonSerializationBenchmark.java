@@ -0,0 +1,59 @@
+package com.englishproject.englishteacherapi.benchmarks;
+
+import com.englishproject.englishteacherapi.dto.ActivityDTO;
+import com.englishproject.englishteacherapi.dto.ActivitySummaryDTO;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import tools.jackson.databind.ObjectMapper;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Serialización de listas de ActivityDTO como las devuelve ActivityController
+ * (también es el costo que el snapshot del catálogo evita en cada lectura).
+ * writeSummaryList serializa las mismas actividades en la vista ?view=summary;
+ * con -prof gc se compara además el volumen asignado por lista.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class JacksonSerializationBenchmark {
+
+    @Param({"10", "1000", "100000"})
+    private int size;
+
+    private ObjectMapper objectMapper;
+    private List<ActivityDTO> activities;
+    private List<ActivitySummaryDTO> summaries;
+
+    @Setup
+    public void setUp() {
+        objectMapper = JsonMapper.builder().build();
+        activities = Fixtures.activityDTOs(size);
+        summaries = Fixtures.activitySummaries(activities);
+    }
+
+    @Benchmark
+    public byte[] writeList() {
+        return objectMapper.writeValueAsBytes(activities);
+    }
+
+    @Benchmark
+    public byte[] writeSummaryList() {
+        return objectMapper.writeValueAsBytes(summaries);
+    }
+}
@@ -0,0 +1,144 @@
+package com.englishproject.englishteacherapi.benchmarks;
+
+import com.englishproject.englishteacherapi.dto.ActivityDTO;
+import com.englishproject.englishteacherapi.dto.LevelDTO;
+import com.englishproject.englishteacherapi.repository.ActivityRepository;
+import com.englishproject.englishteacherapi.repository.LevelRepository;
+import com.englishproject.englishteacherapi.service.CatalogSnapshotService;
+import com.englishproject.englishteacherapi.service.CatalogVersion;
+import com.englishproject.englishteacherapi.service.MetricsRegistry;
+import com.englishproject.englishteacherapi.service.PasswordHashingService;
+import org.h2.jdbcx.JdbcConnectionPool;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Group;
+import org.openjdk.jmh.annotations.GroupThreads;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.test.util.ReflectionTestUtils;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.lang.reflect.Proxy;
+import java.util.List;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Latencia de las lecturas del catálogo durante un pico de logins.
+ * 8 hilos verifican contraseñas sin pausa mientras 1 hilo repite la lectura de GET /api/activities/level/{levelId}
+ * (versión leída de la base + snapshot de CatalogSnapshotService). Comparar el p0.99 de catalogRead:
+ * - pool: BCrypt en el pool acotado de PasswordHashingService (app.security.password-hashing.*);
+ *   los logins que no entran se rechazan (503 en AuthController) y cuentan como operación
+ * - direct: BCrypt en el hilo de cada request, como antes del pool
+ * La versión vive en H2 en memoria y los repositorios devuelven un catálogo fijo (solo se consultan
+ * al construir el snapshot), así que la diferencia es contención de CPU, no de la base.
+ *   java -jar target/benchmarks.jar LoginStormBenchmark -prof gc
+ */
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 2, time = 3)
+@Measurement(iterations = 5, time = 3)
+@Fork(1)
+@State(Scope.Group)
+public class LoginStormBenchmark {
+
+    private static final String PASSWORD = "secreto123";
+    private static final int ACTIVITIES_PER_LEVEL = 50;
+
+    @Param({"pool", "direct"})
+    private String mode;
+
+    @Param({"10"})
+    private int strength;
+
+    private PasswordHashingService passwordHashingService;
+    private BCryptPasswordEncoder passwordEncoder;
+    private String passwordHash;
+    private JdbcConnectionPool dataSource;
+    private CatalogVersion catalogVersion;
+    private CatalogSnapshotService catalogSnapshotService;
+
+    @Setup
+    public void setUp() {
+        passwordHashingService = new PasswordHashingService(strength, 0, 32, new MetricsRegistry());
+        passwordEncoder = new BCryptPasswordEncoder(strength);
+        passwordHash = passwordEncoder.encode(PASSWORD);
+
+        dataSource = JdbcConnectionPool.create("jdbc:h2:mem:login_storm;MODE=PostgreSQL;DB_CLOSE_DELAY=-1", "sa", "");
+        catalogVersion = new CatalogVersion();
+        ReflectionTestUtils.setField(catalogVersion, "jdbcTemplate", new JdbcTemplate(dataSource));
+        ReflectionTestUtils.invokeMethod(catalogVersion, "createVersionRow");
+
+        catalogSnapshotService = new CatalogSnapshotService();
+        ReflectionTestUtils.setField(catalogSnapshotService, "levelRepository", levelRepository());
+        ReflectionTestUtils.setField(catalogSnapshotService, "activityRepository", activityRepository());
+        ReflectionTestUtils.setField(catalogSnapshotService, "catalogVersion", catalogVersion);
+        ReflectionTestUtils.setField(catalogSnapshotService, "objectMapper", JsonMapper.builder().build());
+        catalogSnapshotService.buildAll();
+    }
+
+    @TearDown
+    public void tearDown() {
+        passwordHashingService.shutdown();
+        dataSource.dispose();
+    }
+
+    @Benchmark
+    @Group("loginStorm")
+    @GroupThreads(1)
+    public byte[] catalogRead() {
+        long version = catalogVersion.current();
+        return catalogSnapshotService.getActivitiesByLevel(1L, version);
+    }
+
+    @Benchmark
+    @Group("loginStorm")
+    @GroupThreads(8)
+    public boolean login() {
+        if ("direct".equals(mode)) {
+            return passwordEncoder.matches(PASSWORD, passwordHash);
+        }
+        try {
+            return passwordHashingService.matches(PASSWORD, passwordHash);
+        } catch (RejectedExecutionException e) {
+            return false;
+        }
+    }
+
+    private static LevelRepository levelRepository() {
+        List<LevelDTO> levels = Fixtures.levels().stream()
+                .map(level -> new LevelDTO(level.getId(), level.getName(), level.getDescription(), (long) ACTIVITIES_PER_LEVEL))
+                .toList();
+        return repository(LevelRepository.class, "findAllWithActiveActivitiesCount", levels);
+    }
+
+    private static ActivityRepository activityRepository() {
+        List<ActivityDTO> activities = Fixtures.activityDTOs(ACTIVITIES_PER_LEVEL);
+        return repository(ActivityRepository.class, "findActiveDTOsByLevelId", activities);
+    }
+
+    /**
+     * Repositorio que solo responde la consulta que usa CatalogSnapshotService
+     */
+    private static <T> T repository(Class<T> type, String method, Object result) {
+        return type.cast(Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type}, (proxy, invoked, args) -> {
+            if (invoked.getName().equals(method)) {
+                return result;
+            }
+            if (invoked.getDeclaringClass() == Object.class) {
+                return invoked.getName().equals("toString") ? type.getSimpleName() : invoked.invoke(result, args);
+            }
+            throw new UnsupportedOperationException(invoked.getName());
+        }));
+    }
+}
@@ -0,0 +1,66 @@
+package com.englishproject.englishteacherapi.benchmarks;
+
+import com.englishproject.englishteacherapi.service.MetricsRegistry;
+import com.englishproject.englishteacherapi.service.PasswordHashingService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Hash y verificación BCrypt a través de PasswordHashingService (pool acotado incluido).
+ * strength 10 es el valor de app.security.bcrypt-strength en application.properties;
+ * 12 muestra el costo de subirlo (cada punto duplica el tiempo).
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class PasswordHashingBenchmark {
+
+    private static final String PASSWORD = "secreto123";
+
+    @Param({"10", "12"})
+    private int strength;
+
+    private PasswordHashingService passwordHashingService;
+    private String passwordHash;
+
+    @Setup
+    public void setUp() {
+        passwordHashingService = new PasswordHashingService(strength, 0, 32, new MetricsRegistry());
+        passwordHash = passwordHashingService.hash(PASSWORD);
+    }
+
+    @TearDown
+    public void tearDown() {
+        passwordHashingService.shutdown();
+    }
+
+    @Benchmark
+    public String hash() {
+        return passwordHashingService.hash(PASSWORD);
+    }
+
+    @Benchmark
+    public boolean matches() {
+        return passwordHashingService.matches(PASSWORD, passwordHash);
+    }
+
+    @Benchmark
+    public boolean matchesWrongPassword() {
+        return passwordHashingService.matches("incorrecta", passwordHash);
+    }
+}
@@ -0,0 +1,143 @@
+package com.englishproject.englishteacherapi.benchmarks;
+
+import com.englishproject.englishteacherapi.config.DatabaseIndexInitializer;
+import com.englishproject.englishteacherapi.dto.ActivitySearchHit;
+import com.englishproject.englishteacherapi.dto.SearchCursor;
+import com.englishproject.englishteacherapi.model.Activity;
+import com.englishproject.englishteacherapi.model.Level;
+import com.englishproject.englishteacherapi.repository.ActivitySearchRepository;
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+import org.hibernate.Transaction;
+import org.hibernate.cfg.Configuration;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Búsqueda de texto completo en PostgreSQL (app.search.engine=postgres) con las mismas
+ * consultas que SearchIndexBenchmark, para comparar ambos motores con el mismo catálogo.
+ * Crea la tabla con el mapeo de Activity, la columna tsvector y el índice GIN de
+ * DatabaseIndexInitializer, y la borra al terminar: usar una base descartable.
+ *   java -Djdbc.url=jdbc:postgresql://localhost:5432/bench -Djdbc.user=... -Djdbc.password=... \
+ *        -jar target/benchmarks.jar PostgresSearchBenchmark
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class PostgresSearchBenchmark {
+
+    private static final int PAGE_SIZE = 50;
+    private static final int INSERT_CHUNK = 1000;
+
+    @Param({"10000", "100000"})
+    private int documents;
+
+    private SessionFactory sessionFactory;
+    private ActivitySearchRepository searchRepository;
+    private SearchCursor secondPage;
+
+    @Setup
+    public void setUp() {
+        String url = System.getProperty("jdbc.url");
+        if (url == null || !url.startsWith("jdbc:postgresql:")) {
+            throw new IllegalStateException("PostgresSearchBenchmark requiere -Djdbc.url=jdbc:postgresql://...");
+        }
+        String user = System.getProperty("jdbc.user", "englishteacher");
+        String password = System.getProperty("jdbc.password", "englishteacher");
+
+        sessionFactory = new Configuration()
+                .addAnnotatedClass(Level.class)
+                .addAnnotatedClass(Activity.class)
+                .setProperty("hibernate.connection.url", url)
+                .setProperty("hibernate.connection.username", user)
+                .setProperty("hibernate.connection.password", password)
+                .setProperty("hibernate.connection.reWriteBatchedInserts", "true")
+                .setProperty("hibernate.hbm2ddl.auto", "create-drop")
+                .setProperty("hibernate.jdbc.batch_size", "50")
+                .setProperty("hibernate.cache.use_second_level_cache", "false")
+                .buildSessionFactory();
+        insertCatalog();
+
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(new DriverManagerDataSource(url, user, password));
+        @SuppressWarnings("unchecked")
+        List<String> statements = (List<String>) ReflectionTestUtils.getField(DatabaseIndexInitializer.class, "INDEX_STATEMENTS");
+        statements.forEach(jdbcTemplate::execute);
+        jdbcTemplate.execute("ANALYZE activities");
+
+        searchRepository = new ActivitySearchRepository();
+        ReflectionTestUtils.setField(searchRepository, "jdbcTemplate", jdbcTemplate);
+        List<ActivitySearchHit> firstPage = singleTerm();
+        secondPage = firstPage.get(firstPage.size() - 1).cursor();
+    }
+
+    @TearDown
+    public void tearDown() {
+        sessionFactory.close();
+    }
+
+    @Benchmark
+    public List<ActivitySearchHit> singleTerm() {
+        return searchRepository.search("grammar", null, null, SearchCursor.FIRST, PAGE_SIZE);
+    }
+
+    @Benchmark
+    public List<ActivitySearchHit> singleTermSecondPage() {
+        return searchRepository.search("grammar", null, null, secondPage, PAGE_SIZE);
+    }
+
+    @Benchmark
+    public List<ActivitySearchHit> twoTerms() {
+        return searchRepository.search("present perfect", null, null, SearchCursor.FIRST, PAGE_SIZE);
+    }
+
+    @Benchmark
+    public List<ActivitySearchHit> filteredByLevelAndType() {
+        return searchRepository.search("reading", 2L, Activity.ActivityType.READING, SearchCursor.FIRST, PAGE_SIZE);
+    }
+
+    private void insertCatalog() {
+        List<Level> levels = new ArrayList<>();
+        sessionFactory.inTransaction(session -> {
+            for (Level level : Fixtures.levels()) {
+                level.setId(null);
+                session.persist(level);
+                levels.add(level);
+            }
+        });
+
+        Random random = new Random(42);
+        try (Session session = sessionFactory.openSession()) {
+            for (int start = 1; start <= documents; start += INSERT_CHUNK) {
+                Transaction transaction = session.beginTransaction();
+                for (long id = start; id < start + INSERT_CHUNK && id <= documents; id++) {
+                    Activity activity = Fixtures.activity(id, levels.get((int) (id % levels.size())), random);
+                    activity.setId(null);
+                    session.persist(activity);
+                }
+                transaction.commit();
+                session.clear();
+            }
+        }
+    }
+}
@@ -0,0 +1,123 @@
+package com.englishproject.englishteacherapi.benchmarks;
+
+import com.englishproject.englishteacherapi.config.InMemoryRateLimitStore;
+import com.englishproject.englishteacherapi.config.RateLimitStore;
+import com.englishproject.englishteacherapi.config.RateLimitingFilter;
+import com.englishproject.englishteacherapi.service.MetricsRegistry;
+import jakarta.servlet.FilterChain;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * RateLimitingFilter.doFilter con request/response de spring-test y una cadena vacía.
+ * engine compara el token bucket actual (InMemoryRateLimitStore) con el limitador original
+ * de listas de timestamps (BaselineRateLimitStore).
+ * - allowed: cada invocación usa otro cliente, siempre por debajo del límite
+ * - throttled: un único cliente, casi todas las invocaciones terminan en 429
+ * Las variantes *64Threads reproducen 64 clientes concurrentes. Para ver la diferencia de
+ * asignación de memoria (gc.alloc.rate.norm, bytes por request) correr con el profiler de GC:
+ *   java -jar target/benchmarks.jar RateLimitingFilterBenchmark -prof gc
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class RateLimitingFilterBenchmark {
+
+    private static final int CLIENTS = 1 << 20;
+    private static final FilterChain NO_OP_CHAIN = (request, response) -> { };
+
+    @Param({"tokenBucket", "copyOnWriteBaseline"})
+    private String engine;
+
+    private InMemoryRateLimitStore tokenBucketStore;
+    private RateLimitingFilter filter;
+    private String[] clientIps;
+    private MockHttpServletRequest throttledRequest;
+
+    // Un request reutilizable por hilo (un MockHttpServletRequest por cliente no entra en el heap)
+    @State(Scope.Thread)
+    public static class ClientCursor {
+        final MockHttpServletRequest request = request("10.0.0.1");
+        // Cada hilo arranca en otra posición para no repetir los mismos clientes
+        int next = ThreadLocalRandom.current().nextInt();
+    }
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        RateLimitStore store;
+        if (engine.equals("tokenBucket")) {
+            tokenBucketStore = new InMemoryRateLimitStore(false);
+            store = tokenBucketStore;
+        } else {
+            store = new BaselineRateLimitStore();
+        }
+        filter = new RateLimitingFilter(store, new MetricsRegistry());
+        clientIps = new String[CLIENTS];
+        for (int i = 0; i < CLIENTS; i++) {
+            clientIps[i] = "10." + (i >>> 16 & 0xFF) + "." + (i >>> 8 & 0xFF) + "." + (i & 0xFF);
+        }
+        throttledRequest = request("192.168.0.1");
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        if (tokenBucketStore != null) {
+            tokenBucketStore.shutdown();
+        }
+    }
+
+    @Benchmark
+    @Threads(4)
+    public MockHttpServletResponse allowed(ClientCursor cursor) throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        cursor.request.setRemoteAddr(clientIps[cursor.next++ & (CLIENTS - 1)]);
+        filter.doFilter(cursor.request, response, NO_OP_CHAIN);
+        return response;
+    }
+
+    @Benchmark
+    @Threads(64)
+    public MockHttpServletResponse allowed64Threads(ClientCursor cursor) throws Exception {
+        return allowed(cursor);
+    }
+
+    @Benchmark
+    public MockHttpServletResponse throttled() throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(throttledRequest, response, NO_OP_CHAIN);
+        return response;
+    }
+
+    // Todos los hilos sobre la misma clave: la lista del original se copia en cada request
+    @Benchmark
+    @Threads(64)
+    public MockHttpServletResponse throttled64Threads() throws Exception {
+        return throttled();
+    }
+
+    private static MockHttpServletRequest request(String clientIp) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/activities/level/1");
+        request.setRemoteAddr(clientIp);
+        return request;
+    }
+}
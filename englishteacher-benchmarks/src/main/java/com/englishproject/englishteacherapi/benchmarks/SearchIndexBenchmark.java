@@ -0,0 +1,96 @@
+package com.englishproject.englishteacherapi.benchmarks;
+
+import com.englishproject.englishteacherapi.dto.ActivityDTO;
+import com.englishproject.englishteacherapi.dto.SearchCursor;
+import com.englishproject.englishteacherapi.dto.SearchPage;
+import com.englishproject.englishteacherapi.model.Activity;
+import com.englishproject.englishteacherapi.repository.ActivityRepository;
+import com.englishproject.englishteacherapi.service.InMemoryActivityIndex;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.lang.reflect.Proxy;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Consultas al índice invertido en memoria (app.search.engine=memory).
+ * El repositorio se reemplaza por un stand-in en memoria que solo resuelve findDTOsByIdIn.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+@State(Scope.Benchmark)
+public class SearchIndexBenchmark {
+
+    private static final int PAGE_SIZE = 50;
+
+    @Param({"10000", "100000"})
+    private int documents;
+
+    private InMemoryActivityIndex index;
+
+    @Setup
+    public void setUp() {
+        List<ActivityDTO> activities = Fixtures.activityDTOs(documents);
+        Map<Long, ActivityDTO> byId = new HashMap<>();
+        activities.forEach(activity -> byId.put(activity.getId(), activity));
+
+        ActivityRepository repository = (ActivityRepository) Proxy.newProxyInstance(
+                ActivityRepository.class.getClassLoader(), new Class<?>[]{ActivityRepository.class},
+                (proxy, method, args) -> {
+                    if (method.getName().equals("findDTOsByIdIn")) {
+                        return ((Collection<?>) args[0]).stream().map(byId::get).toList();
+                    }
+                    if (method.getDeclaringClass() == Object.class) {
+                        return switch (method.getName()) {
+                            case "equals" -> proxy == args[0];
+                            case "hashCode" -> System.identityHashCode(proxy);
+                            default -> "ActivityRepository (stand-in en memoria)";
+                        };
+                    }
+                    throw new UnsupportedOperationException(method.getName());
+                });
+
+        index = new InMemoryActivityIndex();
+        ReflectionTestUtils.setField(index, "activityRepository", repository);
+        // Sin transacción activa los cambios se aplican de inmediato
+        activities.forEach(index::activityChanged);
+        System.out.println("Índice: " + index.footprint());
+    }
+
+    @Benchmark
+    public SearchPage singleTerm() {
+        return index.search("grammar", null, null, SearchCursor.FIRST, PAGE_SIZE);
+    }
+
+    @Benchmark
+    public SearchPage twoTerms() {
+        return index.search("present perfect", null, null, SearchCursor.FIRST, PAGE_SIZE);
+    }
+
+    @Benchmark
+    public SearchPage prefix() {
+        return index.search("pro*", null, null, SearchCursor.FIRST, PAGE_SIZE);
+    }
+
+    @Benchmark
+    public SearchPage filteredByLevelAndType() {
+        return index.search("reading", 2L, Activity.ActivityType.READING, SearchCursor.FIRST, PAGE_SIZE);
+    }
+}
@@ -0,0 +1,293 @@
+package com.englishproject.englishteacherapi.benchmarks;
+
+import com.englishproject.englishteacherapi.dto.ActivityDTO;
+import com.englishproject.englishteacherapi.model.Activity;
+import com.englishproject.englishteacherapi.service.LatencyHistogram;
+import tools.jackson.databind.JsonNode;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.net.http.HttpTimeoutException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Prueba de carga con clientes lentos contra la API levantada, para comparar Tomcat sobre hilos de
+ * plataforma y sobre virtual threads (spring.threads.virtual.enabled). No es un benchmark JMH:
+ * mide la aplicación real por HTTP con java.net.http.HttpClient.
+ * - clientes lentos: GET /api/activities/level/{levelId} (el snapshot del nivel, varios MB) leído a
+ *   pocos KB/s; el hilo que escribe la respuesta queda bloqueado mientras el socket está lleno
+ * - clientes rápidos: GET /api/levels en bucle; se reportan throughput, p50, p99, errores y timeouts
+ * Si el nivel pesa menos de slow.payload-bytes se le agregan actividades por POST /api/activities/batch
+ * (con el login de la profesora de ejemplo), así que conviene apuntarla a una base descartable.
+ * Cada request lleva un X-Forwarded-For distinto para no quedar limitada por RateLimitingFilter.
+ *
+ * Levantar la API una vez por modo, con el mismo límite de hilos de Tomcat:
+ *   VIRTUAL_THREADS_ENABLED=false java -jar englishteacher-api.jar --server.port=8080 --server.tomcat.threads.max=50
+ *   VIRTUAL_THREADS_ENABLED=true  java -jar englishteacher-api.jar --server.port=8081 --server.tomcat.threads.max=50
+ * y correr:
+ *   java -cp target/benchmarks.jar com.englishproject.englishteacherapi.benchmarks.SlowClientLoadTest \
+ *       platform=http://localhost:8080 virtual=http://localhost:8081
+ * Opciones (-D): slow.clients (200), fast.clients (16), duration.seconds (30), warmup.seconds (5),
+ * slow.read-bytes-per-second (8192), slow.payload-bytes (8 MB), login.email, login.password
+ */
+public final class SlowClientLoadTest {
+
+    private static final String FAST_PATH = "/api/levels";
+    private static final String SLOW_PATH = "/api/activities/level/";
+    // Ventana de recepción chica: el servidor se bloquea apenas el cliente deja de leer
+    private static final int RECEIVE_BUFFER_BYTES = 64 * 1024;
+    private static final int READ_CHUNK_BYTES = 1024;
+    private static final int MAX_BATCH_SIZE = 1000;
+    private static final int ACTIVITY_CONTENT_CHARS = 5000;
+    private static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(10);
+    private static final double NANOS_PER_MILLI = 1_000_000.0;
+
+    private final String mode;
+    private final URI baseUri;
+    private final Settings settings;
+    private final HttpClient client;
+    private final JsonMapper jsonMapper = JsonMapper.builder().build();
+    private final AtomicInteger clientAddresses = new AtomicInteger();
+
+    private final LatencyHistogram fastLatency = new LatencyHistogram();
+    private final LongAdder fastErrors = new LongAdder();
+    private final LongAdder fastTimeouts = new LongAdder();
+    private final LongAdder slowBytes = new LongAdder();
+    private final LongAdder slowErrors = new LongAdder();
+    private volatile boolean measuring;
+
+    private SlowClientLoadTest(String mode, URI baseUri, Settings settings) {
+        this.mode = mode;
+        this.baseUri = baseUri;
+        this.settings = settings;
+        this.client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(REQUEST_TIMEOUT)
+                .build();
+    }
+
+    public static void main(String[] args) throws Exception {
+        if (args.length == 0) {
+            System.err.println("Uso: SlowClientLoadTest <modo>=<url base> [<modo>=<url base> ...]");
+            System.exit(2);
+        }
+        // Se lee al crear el primer HttpClient
+        System.setProperty("jdk.httpclient.receiveBufferSize", Integer.toString(RECEIVE_BUFFER_BYTES));
+        Settings settings = Settings.fromSystemProperties();
+        System.out.printf("%d clientes lentos a %d B/s, %d clientes rápidos, %d s (+%d s de warmup)%n",
+                settings.slowClients(), settings.slowReadBytesPerSecond(), settings.fastClients(),
+                settings.durationSeconds(), settings.warmupSeconds());
+
+        List<Result> results = new ArrayList<>();
+        for (String target : args) {
+            int separator = target.indexOf('=');
+            String mode = separator > 0 ? target.substring(0, separator) : target;
+            URI baseUri = URI.create(separator > 0 ? target.substring(separator + 1) : target);
+            results.add(new SlowClientLoadTest(mode, baseUri, settings).run());
+        }
+        print(results);
+    }
+
+    private Result run() throws Exception {
+        long levelId = prepareSlowPayload();
+        long measureStart = System.nanoTime() + TimeUnit.SECONDS.toNanos(settings.warmupSeconds());
+        long deadline = measureStart + TimeUnit.SECONDS.toNanos(settings.durationSeconds());
+
+        System.out.printf("[%s] %s: carga en curso%n", mode, baseUri);
+        try (ExecutorService clients = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < settings.slowClients(); i++) {
+                clients.submit(() -> slowClient(levelId, deadline));
+            }
+            for (int i = 0; i < settings.fastClients(); i++) {
+                clients.submit(() -> fastClient(deadline));
+            }
+            TimeUnit.NANOSECONDS.sleep(measureStart - System.nanoTime());
+            measuring = true;
+        }
+        client.close();
+        return new Result(mode, settings.durationSeconds(), fastLatency, fastErrors.sum(), fastTimeouts.sum(),
+                slowBytes.sum(), slowErrors.sum());
+    }
+
+    private void fastClient(long deadline) {
+        while (System.nanoTime() < deadline) {
+            long start = System.nanoTime();
+            try {
+                HttpResponse<Void> response = client.send(get(FAST_PATH), HttpResponse.BodyHandlers.discarding());
+                if (!measuring) {
+                    continue;
+                }
+                if (response.statusCode() == 200) {
+                    fastLatency.recordSince(start);
+                } else {
+                    fastErrors.increment();
+                }
+            } catch (HttpTimeoutException e) {
+                if (measuring) {
+                    fastTimeouts.increment();
+                }
+            } catch (IOException e) {
+                if (measuring) {
+                    fastErrors.increment();
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+
+    private void slowClient(long levelId, long deadline) {
+        byte[] chunk = new byte[READ_CHUNK_BYTES];
+        while (System.nanoTime() < deadline) {
+            try {
+                HttpResponse<InputStream> response = client.send(get(SLOW_PATH + levelId),
+                        HttpResponse.BodyHandlers.ofInputStream());
+                // Cerrar el stream antes del final corta la conexión y libera el hilo del servidor
+                try (InputStream body = response.body()) {
+                    int read;
+                    while (System.nanoTime() < deadline && (read = body.read(chunk)) >= 0) {
+                        if (measuring) {
+                            slowBytes.add(read);
+                        }
+                        TimeUnit.MILLISECONDS.sleep(read * 1000L / settings.slowReadBytesPerSecond());
+                    }
+                }
+            } catch (IOException e) {
+                if (measuring) {
+                    slowErrors.increment();
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+
+    /**
+     * Devuelve el nivel que leen los clientes lentos, agregándole actividades hasta slow.payload-bytes
+     */
+    private long prepareSlowPayload() throws IOException, InterruptedException {
+        JsonNode levels = jsonMapper.readTree(send(get(FAST_PATH)).body());
+        long levelId = levels.get(0).get("id").asLong();
+        int payloadBytes = send(get(SLOW_PATH + levelId)).body().length;
+        if (payloadBytes < settings.slowPayloadBytes()) {
+            String token = login();
+            int missing = (int) ((settings.slowPayloadBytes() - payloadBytes) / ACTIVITY_CONTENT_CHARS) + 1;
+            for (int created = 0; created < missing; created += MAX_BATCH_SIZE) {
+                List<ActivityDTO> batch = new ArrayList<>();
+                for (int i = created; i < Math.min(missing, created + MAX_BATCH_SIZE); i++) {
+                    batch.add(activity(levelId, i));
+                }
+                HttpRequest request = request("/api/activities/batch")
+                        .header("Authorization", "Bearer " + token)
+                        .header("Content-Type", "application/json")
+                        .POST(HttpRequest.BodyPublishers.ofByteArray(jsonMapper.writeValueAsBytes(batch)))
+                        .build();
+                expectStatus(send(request), 201, "alta masiva de actividades");
+            }
+            payloadBytes = send(get(SLOW_PATH + levelId)).body().length;
+        }
+        System.out.printf("[%s] nivel %d: %d KB por respuesta lenta%n", mode, levelId, payloadBytes / 1024);
+        return levelId;
+    }
+
+    private String login() throws IOException, InterruptedException {
+        byte[] credentials = jsonMapper.writeValueAsBytes(Map.of(
+                "email", settings.loginEmail(), "password", settings.loginPassword()));
+        HttpRequest request = request("/api/auth/login")
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofByteArray(credentials))
+                .build();
+        HttpResponse<byte[]> response = send(request);
+        expectStatus(response, 200, "login");
+        return jsonMapper.readTree(response.body()).get("token").asString();
+    }
+
+    private static ActivityDTO activity(long levelId, int index) {
+        ActivityDTO activity = new ActivityDTO();
+        activity.setTitle("Lectura extensa " + index);
+        activity.setDescription("Actividad generada para la prueba de carga con clientes lentos");
+        activity.setContent("x".repeat(ACTIVITY_CONTENT_CHARS));
+        activity.setType(Activity.ActivityType.READING);
+        activity.setLevelId(levelId);
+        activity.setIsActive(true);
+        return activity;
+    }
+
+    private HttpResponse<byte[]> send(HttpRequest request) throws IOException, InterruptedException {
+        return client.send(request, HttpResponse.BodyHandlers.ofByteArray());
+    }
+
+    private static void expectStatus(HttpResponse<byte[]> response, int status, String operation) {
+        if (response.statusCode() != status) {
+            throw new IllegalStateException(operation + " respondió " + response.statusCode() + ": "
+                    + new String(response.body(), StandardCharsets.UTF_8));
+        }
+    }
+
+    private HttpRequest get(String path) {
+        return request(path).GET().build();
+    }
+
+    private HttpRequest.Builder request(String path) {
+        // Una dirección distinta por request: RateLimitingFilter cuenta por X-Forwarded-For
+        int address = clientAddresses.incrementAndGet();
+        return HttpRequest.newBuilder(baseUri.resolve(path))
+                .timeout(REQUEST_TIMEOUT)
+                .header("X-Forwarded-For", "10." + (address >> 16 & 0xFF) + "." + (address >> 8 & 0xFF) + "." + (address & 0xFF));
+    }
+
+    private static void print(List<Result> results) {
+        System.out.printf("%n%-10s %12s %10s %10s %10s %8s %9s %12s %12s%n", "modo", "rápidos/s", "p50 ms",
+                "p99 ms", "máx ms", "errores", "timeouts", "lentos KB/s", "err. lentos");
+        for (Result result : results) {
+            LatencyHistogram latency = result.fastLatency();
+            System.out.printf("%-10s %12.1f %10.2f %10.2f %10.2f %8d %9d %12.1f %12d%n",
+                    result.mode(),
+                    latency.count() / (double) result.durationSeconds(),
+                    latency.percentile(50) / NANOS_PER_MILLI,
+                    latency.percentile(99) / NANOS_PER_MILLI,
+                    latency.max() / NANOS_PER_MILLI,
+                    result.fastErrors(),
+                    result.fastTimeouts(),
+                    result.slowBytes() / 1024.0 / result.durationSeconds(),
+                    result.slowErrors());
+        }
+    }
+
+    private record Settings(int slowClients, int fastClients, int durationSeconds, int warmupSeconds,
+                            int slowReadBytesPerSecond, long slowPayloadBytes,
+                            String loginEmail, String loginPassword) {
+
+        static Settings fromSystemProperties() {
+            return new Settings(
+                    Integer.getInteger("slow.clients", 200),
+                    Integer.getInteger("fast.clients", 16),
+                    Integer.getInteger("duration.seconds", 30),
+                    Integer.getInteger("warmup.seconds", 5),
+                    Integer.getInteger("slow.read-bytes-per-second", 8192),
+                    Long.getLong("slow.payload-bytes", 8L * 1024 * 1024),
+                    System.getProperty("login.email", "paz.valdez@englishteacher.com"),
+                    System.getProperty("login.password", "password123"));
+        }
+    }
+
+    private record Result(String mode, int durationSeconds, LatencyHistogram fastLatency, long fastErrors,
+                          long fastTimeouts, long slowBytes, long slowErrors) {
+    }
+}
@@ -0,0 +1,61 @@
+package com.englishproject.englishteacherapi.benchmarks;
+
+import com.englishproject.englishteacherapi.service.TokenServices;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Generación y parseo de JWT con la misma configuración que application.properties
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class TokenServicesBenchmark {
+
+    private static final String SECRET = "mySecretKeyForJWTTokenGenerationThatMustBeAtLeast256BitsLongAndSecure2024";
+    private static final String EMAIL = "paz.valdez@englishteacher.com";
+
+    private TokenServices tokenServices;
+    private String validToken;
+    private String tamperedToken;
+
+    @Setup
+    public void setUp() {
+        tokenServices = new TokenServices();
+        ReflectionTestUtils.setField(tokenServices, "secretKey", SECRET);
+        ReflectionTestUtils.setField(tokenServices, "defaultExpirationTime", 1800);
+        // Mismo paso que @PostConstruct: clave y parser se construyen una sola vez
+        ReflectionTestUtils.invokeMethod(tokenServices, "initSigningKey");
+        validToken = tokenServices.generateToken(EMAIL);
+        tamperedToken = validToken.substring(0, validToken.length() - 2) + "xx";
+    }
+
+    @Benchmark
+    public String generate() {
+        return tokenServices.generateToken(EMAIL);
+    }
+
+    @Benchmark
+    public TokenServices.ParsedToken parseValid() {
+        return tokenServices.parseToken(validToken);
+    }
+
+    @Benchmark
+    public TokenServices.ParsedToken parseTampered() {
+        return tokenServices.parseToken(tamperedToken);
+    }
+}